@@ -0,0 +1,70 @@
+package com.se04project.morimizu;
+
+/**
+ * 記録するステップ数を上限以内に間引く記録先
+ * stride 回に1回だけスナップショットを取り、上限に達したら1つおきに捨てて stride を2倍にする。
+ * これにより総操作数が事前にわからなくても、記録されるステップは常にほぼ等間隔になる。
+ * 間引かれた操作は回数を数えるだけなので、ソート自体は全速で最後まで実行される。
+ */
+public class FrameBudgetRecorder implements SortRecorder {
+    private final SortStepBuffer steps;
+    private final int maxFrames;
+
+    private long stride = 1;
+    private long operationCount;
+    private long lastRecordedOperation;
+    private int[] lastArray;
+    private SortOperation lastOperation;
+
+    /**
+     * @param steps 記録先のバッファ（初期配列のステップを追加済みであること）
+     * @param maxFrames 初期配列と最終配列を含めたステップ数の上限（2以上）
+     */
+    public FrameBudgetRecorder(SortStepBuffer steps, int maxFrames) {
+        if (maxFrames < 2) {
+            throw new IllegalArgumentException("maxFramesは2以上で指定してください");
+        }
+        this.steps = steps;
+        this.maxFrames = maxFrames;
+    }
+
+    @Override
+    public void record(int[] array, SortOperation operation) {
+        // 比較では配列が変化しないため、スナップショットの対象にしない
+        if (SortOperation.COMPARE.equals(operation.getType())) {
+            return;
+        }
+        operationCount++;
+        lastArray = array;
+        lastOperation = operation;
+
+        if (operationCount % stride != 0) {
+            return;
+        }
+
+        if (steps.size() >= maxFrames) {
+            steps.keepEvenSteps();
+            stride *= 2;
+            if (operationCount % stride != 0) {
+                return;
+            }
+        }
+
+        steps.add(array, operation.getI(), operation.getJ());
+        lastRecordedOperation = operationCount;
+    }
+
+    /**
+     * 最後の操作が間引かれていた場合、最終配列のステップを追加する
+     * 上限に達している場合は直前のステップと置き換える
+     */
+    public void finish() {
+        if (lastArray == null || lastRecordedOperation == operationCount) {
+            return;
+        }
+        if (steps.size() >= maxFrames) {
+            steps.removeLast();
+        }
+        steps.add(lastArray, lastOperation.getI(), lastOperation.getJ());
+    }
+}
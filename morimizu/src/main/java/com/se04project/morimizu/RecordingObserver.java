@@ -0,0 +1,48 @@
+package com.se04project.morimizu;
+
+import com.se04project.morimizu.sort.SortObserver;
+
+/**
+ * sort パッケージのアルゴリズムからの通知を SortOperation に変換して記録先へ渡すオブザーバー
+ * 比較は配列を変更しない compare 操作として記録する。位置は反転の有無にかかわらず共通なので、
+ * 降順の場合も displayArray と同じ位置をそのまま渡す。
+ */
+public class RecordingObserver implements SortObserver {
+    private final SortRecorder recorder;
+    private final int[] displayArray;
+    private final boolean inverted;
+
+    /**
+     * @param recorder 操作の記録先
+     * @param displayArray 記録先に渡す配列。反転しない場合はソート中の配列そのもの
+     * @param inverted ソート中の配列の値がビット反転（~x）されている場合は true。
+     *                 このとき displayArray は元の値のまま別に更新する
+     */
+    public RecordingObserver(SortRecorder recorder, int[] displayArray, boolean inverted) {
+        this.recorder = recorder;
+        this.displayArray = displayArray;
+        this.inverted = inverted;
+    }
+
+    @Override
+    public void compare(int[] arr, int i, int j) {
+        recorder.record(displayArray, new SortOperation(SortOperation.COMPARE, i, j, 0));
+    }
+
+    @Override
+    public void swap(int[] arr, int i, int j) {
+        if (inverted) {
+            int temp = displayArray[i];
+            displayArray[i] = displayArray[j];
+            displayArray[j] = temp;
+        }
+        recorder.record(displayArray, SortOperation.swap(i, j));
+    }
+
+    @Override
+    public void set(int[] arr, int index, int from) {
+        int value = inverted ? ~arr[index] : arr[index];
+        displayArray[index] = value;
+        recorder.record(displayArray, SortOperation.set(index, value, from));
+    }
+}
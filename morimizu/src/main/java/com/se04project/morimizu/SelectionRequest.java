@@ -0,0 +1,45 @@
+package com.se04project.morimizu;
+
+import java.util.List;
+
+public class SelectionRequest {
+    private List<Integer> array;
+    private Integer k;
+    private boolean largest;
+    private List<Double> percentiles;
+
+    public SelectionRequest() {
+    }
+
+    public List<Integer> getArray() {
+        return array;
+    }
+
+    public void setArray(List<Integer> array) {
+        this.array = array;
+    }
+
+    public Integer getK() {
+        return k;
+    }
+
+    public void setK(Integer k) {
+        this.k = k;
+    }
+
+    public boolean isLargest() {
+        return largest;
+    }
+
+    public void setLargest(boolean largest) {
+        this.largest = largest;
+    }
+
+    public List<Double> getPercentiles() {
+        return percentiles;
+    }
+
+    public void setPercentiles(List<Double> percentiles) {
+        this.percentiles = percentiles;
+    }
+}
@@ -0,0 +1,27 @@
+package com.se04project.morimizu;
+
+import java.util.List;
+
+public class SessionUpdateRequest {
+    private List<Integer> insert;
+    private List<Integer> delete;
+
+    public SessionUpdateRequest() {
+    }
+
+    public List<Integer> getInsert() {
+        return insert;
+    }
+
+    public void setInsert(List<Integer> insert) {
+        this.insert = insert;
+    }
+
+    public List<Integer> getDelete() {
+        return delete;
+    }
+
+    public void setDelete(List<Integer> delete) {
+        this.delete = delete;
+    }
+}
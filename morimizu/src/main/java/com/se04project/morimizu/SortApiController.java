@@ -1,73 +1,472 @@
 package com.se04project.morimizu;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import com.se04project.morimizu.sort.*;
 
 @RestController
 @RequestMapping("/api")
 public class SortApiController {
-    private SortService sortService = new SortService();
+    // 1回の取得で返すステップ数の上限
+    private static final int MAX_STEP_WINDOW = 1000;
 
+    // ソート済みセッションから1回に読み出す値の数の上限
+    private static final int MAX_SESSION_WINDOW = 1000;
+
+    // ベンチマークで扱う配列サイズと計測回数の上限
+    private static final int MAX_BENCHMARK_SIZE = 200000;
+    private static final int MAX_BENCHMARK_RUNS = 20;
+    private static final int MAX_PARALLEL_BENCHMARK_SIZE = 10000000;
+
+    // ベンチマークで計測するテストデータの種類
+    private static final String[] BENCHMARK_DATA_TYPES = {
+            "random", "sorted", "reverseSorted", "duplicates", "negative", "nearlySorted"
+    };
+
+    private final SortService sortService = new SortService();
+    private final SortTraceStore traceStore = new SortTraceStore();
+    private final SortTraceCache traceCache = new SortTraceCache();
+    private final SortedSessionStore sessionStore = new SortedSessionStore();
+
+    /**
+     * ソート過程を各ステップのスナップショットとして返す
+     *
+     * @param request - array（整数リスト）、algorithm（アルゴリズム名）、order（ソート順）、
+     *                maxFrames（任意。指定した場合はステップ数をこの数以内に間引く）、
+     *                gapSequence（任意。シェルソートのギャップ列）を含むリクエスト
+     * @param accept Accept ヘッダー。application/x-sort-trace を含む場合はバイナリ形式の操作ログで返す。
+     *               ただし間引いたステップは操作ログで表せないため、maxFrames を指定した場合は JSON で返す
+     * @return 各ステップの配列と比較中のインデックス（JSON）、または初期配列と操作イベントの列（バイナリ形式）
+     */
     @PostMapping("/sort")
-    public List<SortStep> sort(@RequestBody SortRequest request) {
-        return sortService.executeSortWithSteps(request.getArray(), request.getAlgorithm(), request.getOrder());
+    public ResponseEntity<?> sort(@RequestBody SortRequest request,
+            @RequestHeader(value = "Accept", required = false) String accept) {
+        if (accept != null && accept.contains(SortTraceBinaryEncoder.CONTENT_TYPE) && request.getMaxFrames() == null) {
+            SortOrder order = getSortOrder(request);
+            SortService service = getSortService(getGapSequence(request));
+            // スナップショットを作らず、ソート中の操作をそのままエンコードする
+            SortTraceBinaryEncoder encoder = new SortTraceBinaryEncoder(request.getArray());
+            service.executeSort(request.getArray(), request.getAlgorithm(), order, encoder);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(SortTraceBinaryEncoder.CONTENT_TYPE))
+                    .body(encoder.toByteArray());
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(getSteps(request));
+    }
+
+    private SortStepBuffer getSteps(SortRequest request) {
+        if (request.getMaxFrames() != null && request.getMaxFrames() < 2) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "maxFramesは2以上で指定してください");
+        }
+        GapSequence gapSequence = getGapSequence(request);
+        SortOrder order = getSortOrder(request);
+        SortService service = getSortService(gapSequence);
+        // 同じ入力のソート過程はキャッシュから返す
+        return traceCache.get(request.getArray(), request.getAlgorithm(), gapSequence, order,
+                request.getMaxFrames(), () -> {
+                    if (request.getMaxFrames() != null) {
+                        return service.executeSortWithSteps(request.getArray(), request.getAlgorithm(),
+                                order, request.getMaxFrames());
+                    }
+                    return service.executeSortWithSteps(request.getArray(), request.getAlgorithm(), order);
+                });
+    }
+
+    private GapSequence getGapSequence(SortRequest request) {
+        try {
+            return GapSequence.fromName(request.getGapSequence());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private SortOrder getSortOrder(SortRequest request) {
+        try {
+            return SortOrder.fromName(request.getOrder());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private SortService getSortService(GapSequence gapSequence) {
+        return gapSequence == GapSequence.SHELL ? sortService : new SortService(gapSequence);
+    }
+
+    /**
+     * ソート過程キャッシュの統計情報を返す
+     *
+     * @return ヒット数・ミス数・破棄数・保持件数・保持サイズ
+     */
+    @GetMapping("/sort/cache/stats")
+    public Map<String, Object> getTraceCacheStats() {
+        return traceCache.getStats();
+    }
+
+    /**
+     * ソート過程を操作ログ形式で返す
+     *
+     * @param request - array（整数リスト）、algorithm（アルゴリズム名）、order（ソート順）を含むリクエスト
+     * @return 初期配列と操作イベントの列
+     */
+    @PostMapping("/sort/operations")
+    public SortTrace sortOperations(@RequestBody SortRequest request) {
+        return getSortService(getGapSequence(request)).executeSortWithOperations(request.getArray(),
+                request.getAlgorithm(), getSortOrder(request));
+    }
+
+    /**
+     * ソート過程を生成しながら NDJSON でストリーム送信する
+     * 1行目が初期配列、以降の各行が操作イベント。全体をメモリに保持しない。
+     *
+     * @param request - array（整数リスト）、algorithm（アルゴリズム名）、order（ソート順）を含むリクエスト
+     * @return NDJSON のストリーム
+     */
+    @PostMapping(value = "/sort/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> sortStream(@RequestBody SortRequest request) {
+        // 不正な指定はレスポンスの送信を始める前に 400 にする
+        SortService service = getSortService(getGapSequence(request));
+        SortOrder order = getSortOrder(request);
+        StreamingResponseBody body = out -> {
+            SortStreamWriter writer = new SortStreamWriter(out);
+            writer.writeInitialArray(request.getArray());
+            try {
+                service.executeSort(request.getArray(), request.getAlgorithm(), order, writer);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.close();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * ソート過程をサーバー側に保存し、その ID を返す
+     * ステップは GET /api/sort/{id}/steps で範囲を指定して取得する
+     *
+     * @param request - array（整数リスト）、algorithm（アルゴリズム名）、order（ソート順）を含むリクエスト
+     * @return id（ソート過程の ID）、totalSteps（初期配列を含むステップ数）、arrayLength（配列の長さ）
+     */
+    @PostMapping("/sort/traces")
+    public Map<String, Object> createTrace(@RequestBody SortRequest request) {
+        StoredSortTrace trace = getSortService(getGapSequence(request)).executeSortWithKeyframes(request.getArray(),
+                request.getAlgorithm(), getSortOrder(request));
+        String id = traceStore.save(trace);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", id);
+        response.put("totalSteps", trace.getTotalSteps());
+        response.put("arrayLength", trace.getArrayLength());
+        return response;
+    }
+
+    /**
+     * 保存したソート過程から指定範囲のステップを返す
+     *
+     * @param id ソート過程の ID
+     * @param from 開始ステップ（含む）
+     * @param to 終了ステップ（含まない、省略時は from から最大件数分）
+     * @return 範囲内の各ステップ
+     */
+    @GetMapping("/sort/{id}/steps")
+    public SortStepBuffer getTraceSteps(@PathVariable String id,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(required = false) Integer to) {
+        StoredSortTrace trace = traceStore.get(id);
+        if (trace == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "ソート過程が見つかりません: " + id);
+        }
+
+        int end = Math.min(trace.getTotalSteps(), to != null ? to : from + MAX_STEP_WINDOW);
+        if (from < 0 || from > end || end - from > MAX_STEP_WINDOW) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "ステップの範囲が不正です（1回に取得できるのは" + MAX_STEP_WINDOW + "ステップまで）");
+        }
+        return trace.getSteps(from, end);
+    }
+
+    /**
+     * 配列を並べ替えずに、ソート後の順序（各位置に来る要素の元のインデックス）を返す
+     * 同じ値は元のインデックスの順に並ぶ
+     *
+     * @param request - array（整数リスト）、order（ソート順。省略時は昇順）を含むリクエスト
+     * @return k 番目の要素が、ソート後に k 番目に来る要素の元のインデックスとなる配列
+     */
+    @PostMapping("/argsort")
+    public int[] argSort(@RequestBody SortRequest request) {
+        int[] arr = request.getArray().stream().mapToInt(Integer::intValue).toArray();
+        return ArgSort.argSort(arr, getSortOrder(request) == SortOrder.DESCENDING);
+    }
+
+    /**
+     * 配列をソートせずに k 番目（0始まり）に小さい値を返す
+     *
+     * @param request - array（整数リスト）、k（順位）を含むリクエスト
+     * @return k（順位）、value（k 番目に小さい値）
+     */
+    @PostMapping("/select/nth")
+    public Map<String, Object> selectNth(@RequestBody SelectionRequest request) {
+        int[] arr = request.getArray().stream().mapToInt(Integer::intValue).toArray();
+        if (request.getK() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "k を指定してください");
+        }
+        int value;
+        try {
+            value = Selection.select(arr, request.getK());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("k", request.getK());
+        response.put("value", value);
+        return response;
+    }
+
+    /**
+     * 配列をソートせずに小さい方（largest が true の場合は大きい方）から k 個の値を返す
+     *
+     * @param request - array（整数リスト）、k（個数）、largest（任意。大きい方から求める場合は true）を含むリクエスト
+     * @return 小さい方からの場合は昇順、大きい方からの場合は降順の k 個の値
+     */
+    @PostMapping("/select/top-k")
+    public int[] selectTopK(@RequestBody SelectionRequest request) {
+        int[] arr = request.getArray().stream().mapToInt(Integer::intValue).toArray();
+        if (request.getK() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "k を指定してください");
+        }
+        try {
+            return request.isLargest() ? Selection.largest(arr, request.getK()) : Selection.smallest(arr, request.getK());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * 配列をソートせずに指定したパーセンタイル（最近順位法）の値をまとめて返す
+     *
+     * @param request - array（整数リスト）、percentiles（0〜100 のパーセンタイルのリスト。例: [50, 99]）を含むリクエスト
+     * @return percentiles（指定したパーセンタイル）、values（各パーセンタイルの値）
+     */
+    @PostMapping("/select/percentiles")
+    public Map<String, Object> selectPercentiles(@RequestBody SelectionRequest request) {
+        int[] arr = request.getArray().stream().mapToInt(Integer::intValue).toArray();
+        if (request.getPercentiles() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "percentiles を指定してください");
+        }
+        double[] percentiles = request.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray();
+        int[] values;
+        try {
+            values = Selection.percentiles(arr, percentiles);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("percentiles", request.getPercentiles());
+        response.put("values", values);
+        return response;
+    }
+
+    /**
+     * ソート済みセッションを作成する
+     * 以降は挿入・削除のたびに全体をソートし直さず、O(log n) で順序を保ったまま更新する
+     *
+     * @param request - array（整数リスト。初期値）を含むリクエスト
+     * @return id（セッションの ID）、size（要素数）
+     */
+    @PostMapping("/sessions")
+    public Map<String, Object> createSession(@RequestBody SortRequest request) {
+        int[] arr = request.getArray().stream().mapToInt(Integer::intValue).toArray();
+        SortedIntList list = new SortedIntList(arr);
+        String id = sessionStore.create(list);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", id);
+        response.put("size", list.size());
+        return response;
+    }
+
+    /**
+     * セッションに値をまとめて挿入・削除する
+     * 削除は値ごとに1つずつ行い、存在しない値は無視する
+     *
+     * @param id セッションの ID
+     * @param request - insert（任意。挿入する値）、delete（任意。削除する値）を含むリクエスト
+     * @return size（更新後の要素数）、inserted（挿入した数）、deleted（実際に削除した数）
+     */
+    @PostMapping("/sessions/{id}/updates")
+    public Map<String, Object> updateSession(@PathVariable String id, @RequestBody SessionUpdateRequest request) {
+        SortedIntList list = getSession(id);
+        int[] inserts = request.getInsert() != null
+                ? request.getInsert().stream().mapToInt(Integer::intValue).toArray() : new int[0];
+        int[] deletes = request.getDelete() != null
+                ? request.getDelete().stream().mapToInt(Integer::intValue).toArray() : new int[0];
+
+        Map<String, Object> response = new HashMap<>();
+        synchronized (list) {
+            list.addAll(inserts);
+            int deleted = list.removeAll(deletes);
+            response.put("size", list.size());
+            response.put("inserted", inserts.length);
+            response.put("deleted", deleted);
+        }
+        return response;
+    }
+
+    /**
+     * セッションから順位（0始まり）が [from, to) の値を昇順に返す
+     *
+     * @param id セッションの ID
+     * @param from 開始順位（含む）
+     * @param to 終了順位（含まない、省略時は from から最大件数分）
+     * @return from、to、size（全体の要素数）、values（範囲内の値）
+     */
+    @GetMapping("/sessions/{id}/range")
+    public Map<String, Object> getSessionRange(@PathVariable String id,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(required = false) Integer to) {
+        SortedIntList list = getSession(id);
+        Map<String, Object> response = new HashMap<>();
+        synchronized (list) {
+            int end = Math.min(list.size(), to != null ? to : from + MAX_SESSION_WINDOW);
+            if (from < 0 || from > end || end - from > MAX_SESSION_WINDOW) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "順位の範囲が不正です（1回に取得できるのは" + MAX_SESSION_WINDOW + "件まで）");
+            }
+            response.put("from", from);
+            response.put("to", end);
+            response.put("size", list.size());
+            response.put("values", list.toArray(from, end));
+        }
+        return response;
+    }
+
+    /**
+     * セッションの中での値の順位を返す
+     *
+     * @param id セッションの ID
+     * @param value 値
+     * @return value、rank（value より小さい要素の数）、count（value と等しい要素の数）
+     */
+    @GetMapping("/sessions/{id}/rank")
+    public Map<String, Object> getSessionRank(@PathVariable String id, @RequestParam int value) {
+        SortedIntList list = getSession(id);
+        Map<String, Object> response = new HashMap<>();
+        synchronized (list) {
+            response.put("value", value);
+            response.put("rank", list.rank(value));
+            response.put("count", list.count(value));
+        }
+        return response;
+    }
+
+    /**
+     * セッションを削除する
+     *
+     * @param id セッションの ID
+     */
+    @DeleteMapping("/sessions/{id}")
+    public ResponseEntity<Void> deleteSession(@PathVariable String id) {
+        if (!sessionStore.remove(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "セッションが見つかりません: " + id);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private SortedIntList getSession(String id) {
+        SortedIntList list = sessionStore.get(id);
+        if (list == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "セッションが見つかりません: " + id);
+        }
+        return list;
     }
 
     /**
      * テスト用API：指定されたアルゴリズムで配列をソート
      * 
-     * @param request - array（整数リスト）、algorithm（アルゴリズム名）を含むリクエスト
-     * @return ソート済みの配列（昇順）
+     * @param request - array（整数リスト）、algorithm（アルゴリズム名）、order（任意。ソート順。省略時は昇順）、
+     *                gapSequence（任意。シェルソートのギャップ列）を含むリクエスト
+     * @return 指定した順にソート済みの配列
      */
     @PostMapping("/test-algorithm")
     public List<Integer> testAlgorithm(@RequestBody SortRequest request) {
         // リストを配列に変換
         int[] arr = request.getArray().stream().mapToInt(Integer::intValue).toArray();
         String algorithm = request.getAlgorithm();
+        SortOrder order = getSortOrder(request);
 
+        if (algorithm.equals("radixSort")) {
+            // 基数ソートはキーの作り方だけを変えて直接降順に並べる
+            RadixSort.sort(arr, order);
+        } else {
+            GapSequence gapSequence = getGapSequence(request);
+            order.sort(arr, keys -> sortAscending(keys, algorithm, gapSequence));
+        }
+
+        // 配列をリストに変換して返す
+        List<Integer> result = new ArrayList<>();
+        for (int value : arr) {
+            result.add(value);
+        }
+        return result;
+    }
+
+    /**
+     * 指定されたアルゴリズムで配列を昇順にソートする
+     */
+    private static void sortAscending(int[] keys, String algorithm, GapSequence gapSequence) {
         // 既存の実装を呼び出し
         switch (algorithm) {
             case "bubbleSort":
-                BubbleSort.sort(arr);
+                BubbleSort.sort(keys);
                 break;
             case "selectionSort":
-                SelectionSort.sort(arr);
+                SelectionSort.sort(keys);
                 break;
             case "insertionSort":
-                InsertionSort.sort(arr);
+                InsertionSort.sort(keys);
                 break;
             case "quickSort":
-                QuickSort.sort(arr);
+                QuickSort.sort(keys);
                 break;
             case "mergeSort":
-                MergeSort.sort(arr);
+                MergeSort.sort(keys);
+                break;
+            case "parallelMergeSort":
+                MergeSort.parallelSort(keys);
+                break;
+            case "sampleSort":
+                SampleSort.parallelSort(keys);
                 break;
             case "heapSort":
-                HeapSort.heapSort(arr);
+                HeapSort.heapSort(keys);
                 break;
             case "shellSort":
-                ShellSort.sort(arr);
+                ShellSort.sort(keys, gapSequence);
                 break;
             case "bucketSort":
-                BucketSort.bucketSort(arr);
+                BucketSort.bucketSort(keys);
                 break;
             case "radixSort":
-                RadixSort.sort(arr);
+                RadixSort.sort(keys);
+                break;
+            case "auto":
+                AdaptiveSort.sort(keys);
                 break;
             default:
-                BubbleSort.sort(arr);
+                BubbleSort.sort(keys);
         }
-
-        // 配列をリストに変換して返す
-        List<Integer> result = new ArrayList<>();
-        for (int value : arr) {
-            result.add(value);
-        }
-        return result;
     }
 
     /**
@@ -111,32 +510,7 @@ public class SortApiController {
                 throw new IllegalArgumentException("サイズは1から1000の間で指定してください");
             }
 
-            int[] testData = null;
-
-            switch (dataType) {
-                case "random":
-                    testData = TestDataGenerator.generateRandomArray(size);
-                    break;
-                case "sorted":
-                    testData = TestDataGenerator.generateSortedArray(size);
-                    break;
-                case "reverseSorted":
-                    testData = TestDataGenerator.generateReverseSortedArray(size);
-                    break;
-                case "duplicates":
-                    int uniqueElements = Math.max(1, size / 5);
-                    testData = TestDataGenerator.generateArrayWithDuplicates(size, uniqueElements);
-                    break;
-                case "negative":
-                    testData = TestDataGenerator.generateArrayWithNegativeNumbers(size);
-                    break;
-                case "nearlySorted":
-                    int perturbations = Math.max(1, size / 10);
-                    testData = TestDataGenerator.generateNearlySortedArray(size, perturbations);
-                    break;
-                default:
-                    testData = TestDataGenerator.generateRandomArray(size);
-            }
+            int[] testData = generateData(dataType, size);
 
             // 配列をリストに変換
             List<Integer> result = new ArrayList<>();
@@ -155,4 +529,126 @@ public class SortApiController {
 
         return response;
     }
+
+    /**
+     * シェルソートの各ギャップ列の実行時間をテストデータの種類ごとに計測する
+     *
+     * @param size 配列サイズ
+     * @param runs 計測回数（中央値を返す）
+     * @return results（データの種類ごと・ギャップ列ごとの実行時間の中央値（ミリ秒））、
+     *         best（データの種類ごとに最も速かったギャップ列）
+     */
+    @GetMapping("/benchmark/shell-sort")
+    public Map<String, Object> benchmarkShellSort(@RequestParam(defaultValue = "10000") int size,
+            @RequestParam(defaultValue = "5") int runs) {
+        if (size <= 0 || size > MAX_BENCHMARK_SIZE || runs <= 0 || runs > MAX_BENCHMARK_RUNS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "サイズは1から" + MAX_BENCHMARK_SIZE + "、計測回数は1から" + MAX_BENCHMARK_RUNS + "の間で指定してください");
+        }
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        Map<String, Object> best = new LinkedHashMap<>();
+        for (String dataType : BENCHMARK_DATA_TYPES) {
+            int[] input = generateData(dataType, size);
+            Map<String, Double> times = new LinkedHashMap<>();
+            GapSequence fastest = null;
+            long fastestNanos = Long.MAX_VALUE;
+            for (GapSequence gapSequence : GapSequence.values()) {
+                long nanos = SortBenchmark.medianNanos(input, arr -> ShellSort.sort(arr, gapSequence), runs, runs);
+                times.put(gapSequence.name(), nanos / 1e6);
+                if (nanos < fastestNanos) {
+                    fastestNanos = nanos;
+                    fastest = gapSequence;
+                }
+            }
+            results.put(dataType, times);
+            best.put(dataType, fastest.name());
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("size", size);
+        response.put("runs", runs);
+        response.put("results", results);
+        response.put("best", best);
+        return response;
+    }
+
+    /**
+     * 並列サンプルソートの実行時間をスレッド数ごとに計測する
+     * スレッド数は1から利用可能なプロセッサ数まで2倍ずつ増やす
+     *
+     * @param size 配列サイズ（ランダムな配列を使う）
+     * @param runs 計測回数（中央値を返す）
+     * @return sequentialMillis（クイックソートの実行時間）、
+     *         results（スレッド数ごとの threads・millis・speedup（1スレッドに対する速度比））
+     */
+    @GetMapping("/benchmark/sample-sort")
+    public Map<String, Object> benchmarkSampleSort(@RequestParam(defaultValue = "1000000") int size,
+            @RequestParam(defaultValue = "3") int runs) {
+        if (size <= 0 || size > MAX_PARALLEL_BENCHMARK_SIZE || runs <= 0 || runs > MAX_BENCHMARK_RUNS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "サイズは1から" + MAX_PARALLEL_BENCHMARK_SIZE + "、計測回数は1から" + MAX_BENCHMARK_RUNS
+                            + "の間で指定してください");
+        }
+
+        int[] input = TestDataGenerator.generateRandomArray(size, -1000000000, 1000000000);
+        long sequentialNanos = SortBenchmark.medianNanos(input, QuickSort::sort, 1, runs);
+
+        List<Integer> threadCounts = new ArrayList<>();
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads < processors; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(processors);
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        long singleThreadNanos = 0;
+        for (int threads : threadCounts) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                long nanos = SortBenchmark.medianNanos(input, arr -> SampleSort.parallelSort(arr, pool), 1, runs);
+                if (threads == 1) {
+                    singleThreadNanos = nanos;
+                }
+                Map<String, Object> result = new HashMap<>();
+                result.put("threads", threads);
+                result.put("millis", nanos / 1e6);
+                result.put("speedup", (double) singleThreadNanos / nanos);
+                results.add(result);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("size", size);
+        response.put("runs", runs);
+        response.put("sequentialMillis", sequentialNanos / 1e6);
+        response.put("results", results);
+        return response;
+    }
+
+    /**
+     * 指定した種類のテストデータを TestDataGenerator で生成する
+     */
+    private int[] generateData(String dataType, int size) {
+        switch (dataType) {
+            case "random":
+                return TestDataGenerator.generateRandomArray(size);
+            case "sorted":
+                return TestDataGenerator.generateSortedArray(size);
+            case "reverseSorted":
+                return TestDataGenerator.generateReverseSortedArray(size);
+            case "duplicates":
+                int uniqueElements = Math.max(1, size / 5);
+                return TestDataGenerator.generateArrayWithDuplicates(size, uniqueElements);
+            case "negative":
+                return TestDataGenerator.generateArrayWithNegativeNumbers(size);
+            case "nearlySorted":
+                int perturbations = Math.max(1, size / 10);
+                return TestDataGenerator.generateNearlySortedArray(size, perturbations);
+            default:
+                return TestDataGenerator.generateRandomArray(size);
+        }
+    }
 }
@@ -0,0 +1,81 @@
+package com.se04project.morimizu;
+
+/**
+ * ソート過程の1操作を表すイベント
+ * クライアントは初期配列にこの操作を順に適用してステップを再生する
+ * <ul>
+ * <li>swap: i と j の要素を交換する（ハイライト: i, j）</li>
+ * <li>set: i に value を書き込む（ハイライト: i と、j が 0 以上なら j）</li>
+ * <li>compare: 配列は変更せず i と j をハイライトする</li>
+ * </ul>
+ */
+public class SortOperation {
+    public static final String SWAP = "swap";
+    public static final String SET = "set";
+    public static final String COMPARE = "compare";
+
+    private String type;
+    private int i;
+    private int j;
+    private int value;
+
+    public SortOperation(String type, int i, int j, int value) {
+        this.type = type;
+        this.i = i;
+        this.j = j;
+        this.value = value;
+    }
+
+    /**
+     * 交換操作を生成する
+     * @param i 交換する位置
+     * @param j 交換する位置
+     * @return 操作
+     */
+    public static SortOperation swap(int i, int j) {
+        return new SortOperation(SWAP, i, j, 0);
+    }
+
+    /**
+     * 書き込み操作を生成する
+     * @param index 書き込む位置
+     * @param value 書き込む値
+     * @param from 値の移動元の位置（移動元がない場合は -1）
+     * @return 操作
+     */
+    public static SortOperation set(int index, int value, int from) {
+        return new SortOperation(SET, index, from, value);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public int getI() {
+        return i;
+    }
+
+    public void setI(int i) {
+        this.i = i;
+    }
+
+    public int getJ() {
+        return j;
+    }
+
+    public void setJ(int j) {
+        this.j = j;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public void setValue(int value) {
+        this.value = value;
+    }
+}
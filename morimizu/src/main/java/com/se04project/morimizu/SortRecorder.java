@@ -0,0 +1,15 @@
+package com.se04project.morimizu;
+
+/**
+ * ソート中の操作を受け取る記録先
+ */
+@FunctionalInterface
+public interface SortRecorder {
+
+    /**
+     * 操作を記録する
+     * @param array 操作を適用した後の配列（ソート中に変更され続けるため、保持する場合はコピーすること）
+     * @param operation 適用した操作
+     */
+    void record(int[] array, SortOperation operation);
+}
@@ -6,6 +6,8 @@ public class SortRequest {
     private List<Integer> array;
     private String algorithm;
     private String order;
+    private Integer maxFrames;
+    private String gapSequence;
 
     public SortRequest() {
     }
@@ -39,4 +41,20 @@ public class SortRequest {
     public void setOrder(String order) {
         this.order = order;
     }
+
+    public Integer getMaxFrames() {
+        return maxFrames;
+    }
+
+    public void setMaxFrames(Integer maxFrames) {
+        this.maxFrames = maxFrames;
+    }
+
+    public String getGapSequence() {
+        return gapSequence;
+    }
+
+    public void setGapSequence(String gapSequence) {
+        this.gapSequence = gapSequence;
+    }
 }
@@ -0,0 +1,188 @@
+package com.se04project.morimizu;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ソート過程のステップを列指向で保持するバッファ
+ * 全ステップの配列の値を1つの int[] に連続して格納し、比較中のインデックスはオフセット表で区切る。
+ * Integer のボックス化やステップごとのリスト生成を行わないため、List&lt;SortStep&gt; より大幅に小さい。
+ * JSON には List&lt;SortStep&gt; と同じ形式で書き出される。
+ */
+@JsonSerialize(using = SortStepBufferSerializer.class)
+public class SortStepBuffer {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int arrayLength;
+    private int stepCount;
+
+    // ステップ k の配列は values[k * arrayLength] から arrayLength 個
+    private int[] values;
+
+    // ステップ k の比較中インデックスは indices[indexOffsets[k]] から indices[indexOffsets[k + 1] - 1]
+    private int[] indices;
+    private int[] indexOffsets;
+
+    public SortStepBuffer(int arrayLength) {
+        this.arrayLength = arrayLength;
+        this.values = new int[INITIAL_CAPACITY * arrayLength];
+        this.indices = new int[INITIAL_CAPACITY * 2];
+        this.indexOffsets = new int[INITIAL_CAPACITY + 1];
+    }
+
+    /**
+     * ステップを追加する
+     * @param array ステップ時点の配列
+     * @param first 比較中のインデックス（ない場合は -1）
+     * @param second 比較中のインデックス（ない場合は -1）
+     */
+    public void add(List<Integer> array, int first, int second) {
+        ensureCapacity(stepCount + 1);
+
+        int base = stepCount * arrayLength;
+        for (int i = 0; i < arrayLength; i++) {
+            values[base + i] = array.get(i);
+        }
+        addIndices(first, second);
+    }
+
+    /**
+     * ステップを追加する
+     * @param array ステップ時点の配列
+     * @param first 比較中のインデックス（ない場合は -1）
+     * @param second 比較中のインデックス（ない場合は -1）
+     */
+    public void add(int[] array, int first, int second) {
+        ensureCapacity(stepCount + 1);
+        System.arraycopy(array, 0, values, stepCount * arrayLength, arrayLength);
+        addIndices(first, second);
+    }
+
+    private void addIndices(int first, int second) {
+        int indexCount = indexOffsets[stepCount];
+        if (first >= 0) {
+            indices[indexCount++] = first;
+        }
+        if (second >= 0) {
+            indices[indexCount++] = second;
+        }
+        stepCount++;
+        indexOffsets[stepCount] = indexCount;
+    }
+
+    /**
+     * 偶数番目のステップだけを残して詰める（先頭の初期配列は必ず残る）
+     */
+    public void keepEvenSteps() {
+        int kept = 0;
+        int indexCount = 0;
+        for (int step = 0; step < stepCount; step += 2) {
+            System.arraycopy(values, step * arrayLength, values, kept * arrayLength, arrayLength);
+
+            int start = indexOffsets[step];
+            int end = indexOffsets[step + 1];
+            System.arraycopy(indices, start, indices, indexCount, end - start);
+            indexOffsets[kept] = indexCount;
+            indexCount += end - start;
+            kept++;
+        }
+        stepCount = kept;
+        indexOffsets[stepCount] = indexCount;
+    }
+
+    /**
+     * 最後のステップを削除する
+     */
+    public void removeLast() {
+        if (stepCount == 0) {
+            throw new IllegalStateException("削除するステップがありません");
+        }
+        stepCount--;
+    }
+
+    private void ensureCapacity(int steps) {
+        if (steps >= indexOffsets.length) {
+            int capacity = Math.max(steps + 1, indexOffsets.length * 2);
+            indexOffsets = Arrays.copyOf(indexOffsets, capacity);
+        }
+        if (indexOffsets[stepCount] + 2 > indices.length) {
+            indices = Arrays.copyOf(indices, Math.max(indexOffsets[stepCount] + 2, indices.length * 2));
+        }
+
+        long required = (long) steps * arrayLength;
+        if (required > values.length) {
+            long capacity = Math.max(required, (long) values.length * 2);
+            if (required > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("ソート過程が大きすぎて記録できません");
+            }
+            values = Arrays.copyOf(values, (int) Math.min(capacity, Integer.MAX_VALUE - 8));
+        }
+    }
+
+    /**
+     * @return ステップ数
+     */
+    public int size() {
+        return stepCount;
+    }
+
+    /**
+     * 内部配列の余分な容量を解放する
+     */
+    public void trimToSize() {
+        values = Arrays.copyOf(values, stepCount * arrayLength);
+        indices = Arrays.copyOf(indices, indexOffsets[stepCount]);
+        indexOffsets = Arrays.copyOf(indexOffsets, stepCount + 1);
+    }
+
+    /**
+     * @return 内部配列が確保しているおおよそのバイト数
+     */
+    public long estimatedBytes() {
+        return 4L * ((long) values.length + indices.length + indexOffsets.length);
+    }
+
+    /**
+     * @return 各ステップの配列の長さ
+     */
+    public int getArrayLength() {
+        return arrayLength;
+    }
+
+    /**
+     * 指定ステップを SortStep として取り出す
+     * @param step ステップ番号
+     * @return ステップ
+     */
+    public SortStep get(int step) {
+        if (step < 0 || step >= stepCount) {
+            throw new IndexOutOfBoundsException("ステップ番号が範囲外です: " + step);
+        }
+
+        List<Integer> array = new ArrayList<>(arrayLength);
+        int base = step * arrayLength;
+        for (int i = 0; i < arrayLength; i++) {
+            array.add(values[base + i]);
+        }
+
+        List<Integer> comparingIndices = new ArrayList<>();
+        for (int i = indexOffsets[step]; i < indexOffsets[step + 1]; i++) {
+            comparingIndices.add(indices[i]);
+        }
+        return new SortStep(array, comparingIndices);
+    }
+
+    int[] values() {
+        return values;
+    }
+
+    int[] indices() {
+        return indices;
+    }
+
+    int[] indexOffsets() {
+        return indexOffsets;
+    }
+}
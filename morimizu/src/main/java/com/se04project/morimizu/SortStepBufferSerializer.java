@@ -0,0 +1,35 @@
+package com.se04project.morimizu;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+/**
+ * SortStepBuffer を List&lt;SortStep&gt; と同じ JSON 形式で、内部の int[] から直接書き出すシリアライザ
+ */
+public class SortStepBufferSerializer extends StdSerializer<SortStepBuffer> {
+
+    public SortStepBufferSerializer() {
+        super(SortStepBuffer.class);
+    }
+
+    @Override
+    public void serialize(SortStepBuffer buffer, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        int arrayLength = buffer.getArrayLength();
+        int[] values = buffer.values();
+        int[] indices = buffer.indices();
+        int[] indexOffsets = buffer.indexOffsets();
+
+        gen.writeStartArray();
+        for (int step = 0; step < buffer.size(); step++) {
+            gen.writeStartObject();
+            gen.writeFieldName("array");
+            gen.writeArray(values, step * arrayLength, arrayLength);
+            gen.writeFieldName("comparingIndices");
+            gen.writeArray(indices, indexOffsets[step], indexOffsets[step + 1] - indexOffsets[step]);
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+}
@@ -0,0 +1,76 @@
+package com.se04project.morimizu;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * ソート過程を NDJSON（1行1レコード）としてストリームに書き出す記録先
+ * 1行目は初期配列（SortStep形式）、2行目以降は SortOperation を1行ずつ書き出す。
+ * 書き込み先がブロックしている間は record() も戻らないため、
+ * クライアントの読み込みが遅い場合はソート自体が待機する。
+ */
+public class SortStreamWriter implements SortRecorder {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // この件数ごとにフラッシュし、少量の出力でもクライアントへ届くようにする
+    private static final int FLUSH_INTERVAL = 256;
+
+    private final JsonGenerator generator;
+    private int pending;
+
+    public SortStreamWriter(OutputStream out) throws IOException {
+        generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+    }
+
+    /**
+     * 初期配列を書き出し、すぐにフラッシュする
+     */
+    public void writeInitialArray(List<Integer> array) throws IOException {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("array");
+        for (int value : array) {
+            generator.writeNumber(value);
+        }
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("comparingIndices");
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    @Override
+    public void record(int[] array, SortOperation operation) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("type", operation.getType());
+            generator.writeNumberField("i", operation.getI());
+            generator.writeNumberField("j", operation.getJ());
+            generator.writeNumberField("value", operation.getValue());
+            generator.writeEndObject();
+
+            if (++pending >= FLUSH_INTERVAL) {
+                generator.flush();
+                pending = 0;
+            }
+        } catch (IOException e) {
+            // クライアントの切断などで書き込めない場合はソートを中断する
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 残りの出力を書き出して終了する
+     */
+    public void close() throws IOException {
+        generator.writeRaw('\n');
+        generator.close();
+    }
+}
@@ -0,0 +1,33 @@
+package com.se04project.morimizu;
+
+import java.util.List;
+
+/**
+ * 操作ログ形式のソート過程
+ * 初期配列を1回だけ保持し、以降は操作イベントの列で表す
+ */
+public class SortTrace {
+    private List<Integer> initialArray;
+    private List<SortOperation> operations;
+
+    public SortTrace(List<Integer> initialArray, List<SortOperation> operations) {
+        this.initialArray = initialArray;
+        this.operations = operations;
+    }
+
+    public List<Integer> getInitialArray() {
+        return initialArray;
+    }
+
+    public void setInitialArray(List<Integer> initialArray) {
+        this.initialArray = initialArray;
+    }
+
+    public List<SortOperation> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<SortOperation> operations) {
+        this.operations = operations;
+    }
+}
@@ -0,0 +1,120 @@
+package com.se04project.morimizu;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 操作ログ形式のソート過程を可変長整数のバイナリ形式（application/x-sort-trace）に変換するエンコーダ
+ * <pre>
+ * "STRC" バージョン(1バイト)
+ * 配列の長さ  初期配列の値（zigzag）...
+ * 操作: 種類  位置 i の差分（zigzag）  j - i（zigzag）  [set の場合のみ: 値の差分（zigzag）]
+ * </pre>
+ * 数値はすべて LEB128 形式の可変長整数。操作はデータの終わりまで続く。
+ * 種類は 0: swap、1: set、2: compare。位置 i は直前の操作の i からの差分、
+ * set の値は書き込む位置の直前の値からの差分で表すため、近い位置への操作が続くほど短くなる。
+ * SortRecorder としてソート中に直接書き込めるため、スナップショットを作らずに操作数に比例した時間で変換できる。
+ * デコーダは static/js/sort-trace-decoder.js。
+ */
+public class SortTraceBinaryEncoder implements SortRecorder {
+    public static final String CONTENT_TYPE = "application/x-sort-trace";
+
+    private static final byte[] MAGIC = { 'S', 'T', 'R', 'C' };
+    private static final int VERSION = 2;
+
+    private static final int SWAP = 0;
+    private static final int SET = 1;
+    private static final int COMPARE = 2;
+
+    // 値の差分を求めるため、ここまでの操作を適用した配列を保持する
+    private final int[] current;
+    private int lastI;
+
+    private byte[] buffer = new byte[256];
+    private int length;
+
+    /**
+     * ヘッダーと初期配列を書き込む
+     * @param initialArray 初期配列
+     */
+    public SortTraceBinaryEncoder(List<Integer> initialArray) {
+        current = initialArray.stream().mapToInt(Integer::intValue).toArray();
+        for (byte b : MAGIC) {
+            writeByte(b);
+        }
+        writeByte(VERSION);
+        writeVarint(current.length);
+        for (int value : current) {
+            writeVarint(zigzag(value));
+        }
+    }
+
+    /**
+     * 操作ログ形式のソート過程をバイナリ形式に変換する
+     * @param trace ソート過程
+     * @return エンコード結果
+     */
+    public static byte[] encode(SortTrace trace) {
+        SortTraceBinaryEncoder encoder = new SortTraceBinaryEncoder(trace.getInitialArray());
+        for (SortOperation operation : trace.getOperations()) {
+            encoder.record(null, operation);
+        }
+        return encoder.toByteArray();
+    }
+
+    @Override
+    public void record(int[] array, SortOperation operation) {
+        int i = operation.getI();
+        int j = operation.getJ();
+        switch (operation.getType()) {
+            case SortOperation.SWAP:
+                writeOperation(SWAP, i, j);
+                int temp = current[i];
+                current[i] = current[j];
+                current[j] = temp;
+                break;
+            case SortOperation.SET:
+                writeOperation(SET, i, j);
+                writeVarint(zigzag(operation.getValue() - current[i]));
+                current[i] = operation.getValue();
+                break;
+            default:
+                writeOperation(COMPARE, i, j);
+                break;
+        }
+    }
+
+    private void writeOperation(int type, int i, int j) {
+        writeVarint(type);
+        writeVarint(zigzag(i - lastI));
+        writeVarint(zigzag(j - i));
+        lastI = i;
+    }
+
+    /**
+     * @return ここまでに書き込んだエンコード結果
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    // 符号付き整数を小さい絶対値ほど短くなる符号なし整数に変換する
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private void writeVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    private void writeByte(int b) {
+        if (length == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        buffer[length++] = (byte) b;
+    }
+}
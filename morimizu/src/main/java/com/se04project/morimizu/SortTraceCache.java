@@ -0,0 +1,168 @@
+package com.se04project.morimizu;
+
+import com.se04project.morimizu.sort.GapSequence;
+import com.se04project.morimizu.sort.SortOrder;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * 入力配列・アルゴリズム・ギャップ列・ソート順ごとにソート過程を保持する LRU キャッシュ
+ * 保持しているソート過程とキーの入力配列の合計サイズが上限を超えた場合、最も長く参照されていないものから破棄する
+ */
+public class SortTraceCache {
+    private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, SortStepBuffer> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public SortTraceCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param maxBytes 保持するソート過程とキーの入力配列の合計サイズの上限（バイト）
+     */
+    public SortTraceCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * キャッシュ済みのソート過程を返す。ない場合は生成して保存する
+     * 生成はロックの外で行うため、同じ入力が同時に来た場合は重複して生成されることがある
+     *
+     * @param maxFrames ステップ数の上限（指定しない場合は null）
+     * @param generator キャッシュにない場合にソート過程を生成する処理
+     * @return ソート過程（呼び出し側で変更しないこと）
+     */
+    public SortStepBuffer get(List<Integer> array, String algorithm, SortOrder order, Integer maxFrames,
+            Supplier<SortStepBuffer> generator) {
+        return get(array, algorithm, GapSequence.SHELL, order, maxFrames, generator);
+    }
+
+    /**
+     * シェルソートのギャップ列を区別して、キャッシュ済みのソート過程を返す
+     *
+     * @param gapSequence シェルソートのギャップ列
+     * @see #get(List, String, SortOrder, Integer, Supplier)
+     */
+    public SortStepBuffer get(List<Integer> array, String algorithm, GapSequence gapSequence, SortOrder order,
+            Integer maxFrames, Supplier<SortStepBuffer> generator) {
+        Key key = new Key(array, algorithm, gapSequence, order, maxFrames != null ? maxFrames : 0);
+
+        synchronized (this) {
+            SortStepBuffer cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        SortStepBuffer steps = generator.get();
+        steps.trimToSize();
+        put(key, steps);
+        return steps;
+    }
+
+    private synchronized void put(Key key, SortStepBuffer steps) {
+        long bytes = entryBytes(key, steps);
+        if (bytes > maxBytes) {
+            return;
+        }
+
+        SortStepBuffer previous = entries.put(key, steps);
+        if (previous != null) {
+            totalBytes -= entryBytes(key, previous);
+        }
+        totalBytes += bytes;
+
+        Iterator<Map.Entry<Key, SortStepBuffer>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Key, SortStepBuffer> entry = eldest.next();
+            totalBytes -= entryBytes(entry.getKey(), entry.getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    // キーが持つ入力配列のコピーも含めた1件あたりのサイズ
+    private static long entryBytes(Key key, SortStepBuffer steps) {
+        return key.estimatedBytes() + steps.estimatedBytes();
+    }
+
+    /**
+     * @return hits（ヒット数）、misses（ミス数）、evictions（破棄数）、entries（保持件数）、
+     *         bytes（保持サイズ）、maxBytes（サイズ上限）
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", evictions);
+        stats.put("entries", entries.size());
+        stats.put("bytes", totalBytes);
+        stats.put("maxBytes", maxBytes);
+        return stats;
+    }
+
+    /**
+     * キャッシュのキー
+     * 配列はハッシュ値を事前に計算しておき、衝突した場合のみ全要素を比較する
+     */
+    private static final class Key {
+        // 配列以外のフィールドとオブジェクトヘッダーの概算サイズ
+        private static final long OVERHEAD_BYTES = 64;
+
+        private final int[] array;
+        private final String algorithm;
+        private final GapSequence gapSequence;
+        private final SortOrder order;
+        private final int maxFrames;
+        private final int hash;
+
+        Key(List<Integer> array, String algorithm, GapSequence gapSequence, SortOrder order, int maxFrames) {
+            this.array = array.stream().mapToInt(Integer::intValue).toArray();
+            this.algorithm = algorithm;
+            this.gapSequence = gapSequence;
+            this.order = order;
+            this.maxFrames = maxFrames;
+            this.hash = Objects.hash(Arrays.hashCode(this.array), algorithm, gapSequence, order, maxFrames);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash
+                    && maxFrames == other.maxFrames
+                    && Objects.equals(algorithm, other.algorithm)
+                    && gapSequence == other.gapSequence
+                    && order == other.order
+                    && Arrays.equals(array, other.array);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        long estimatedBytes() {
+            return 4L * array.length + OVERHEAD_BYTES;
+        }
+    }
+}
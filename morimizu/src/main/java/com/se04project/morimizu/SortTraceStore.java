@@ -0,0 +1,47 @@
+package com.se04project.morimizu;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * ID を付けてソート過程を保持するストア
+ * 保持数が上限を超えた場合は最も長く参照されていないものから破棄する
+ */
+public class SortTraceStore {
+    private static final int DEFAULT_MAX_TRACES = 64;
+
+    private final Map<String, StoredSortTrace> traces;
+
+    public SortTraceStore() {
+        this(DEFAULT_MAX_TRACES);
+    }
+
+    public SortTraceStore(int maxTraces) {
+        this.traces = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredSortTrace> eldest) {
+                return size() > maxTraces;
+            }
+        };
+    }
+
+    /**
+     * ソート過程を保存する
+     * @param trace 保存するソート過程
+     * @return 割り当てた ID
+     */
+    public synchronized String save(StoredSortTrace trace) {
+        String id = UUID.randomUUID().toString();
+        traces.put(id, trace);
+        return id;
+    }
+
+    /**
+     * @param id ソート過程の ID
+     * @return ソート過程（存在しない、または破棄済みの場合は null）
+     */
+    public synchronized StoredSortTrace get(String id) {
+        return traces.get(id);
+    }
+}
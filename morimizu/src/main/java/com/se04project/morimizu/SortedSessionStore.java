@@ -0,0 +1,56 @@
+package com.se04project.morimizu;
+
+import com.se04project.morimizu.sort.SortedIntList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * ID を付けてソート済みの列（セッション）を保持するストア
+ * 保持数が上限を超えた場合は最も長く参照されていないものから破棄する
+ */
+public class SortedSessionStore {
+    private static final int DEFAULT_MAX_SESSIONS = 64;
+
+    private final Map<String, SortedIntList> sessions;
+
+    public SortedSessionStore() {
+        this(DEFAULT_MAX_SESSIONS);
+    }
+
+    public SortedSessionStore(int maxSessions) {
+        this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SortedIntList> eldest) {
+                return size() > maxSessions;
+            }
+        };
+    }
+
+    /**
+     * セッションを作成する
+     * @param list セッションで保持する列
+     * @return 割り当てた ID
+     */
+    public synchronized String create(SortedIntList list) {
+        String id = UUID.randomUUID().toString();
+        sessions.put(id, list);
+        return id;
+    }
+
+    /**
+     * @param id セッションの ID
+     * @return セッションの列（存在しない、または破棄済みの場合は null）
+     */
+    public synchronized SortedIntList get(String id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * @param id セッションの ID
+     * @return 削除した場合は true
+     */
+    public synchronized boolean remove(String id) {
+        return sessions.remove(id) != null;
+    }
+}
@@ -0,0 +1,157 @@
+package com.se04project.morimizu;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * サーバー側に保持するシーク可能なソート過程
+ * 操作ログに加えて、一定間隔の操作ごとに配列全体（キーフレーム）を保持する。
+ * 任意のステップは直前のキーフレームから最大 keyframeInterval 個の操作を再生するだけで復元できる。
+ * ステップ 0 は初期配列、ステップ k は k 個目の操作を適用した後の配列。
+ */
+public class StoredSortTrace implements SortRecorder {
+    private static final int SWAP = 0;
+    private static final int SET = 1;
+    private static final int COMPARE = 2;
+
+    private final int arrayLength;
+    private final int keyframeInterval;
+
+    // キーフレーム m は m * keyframeInterval 個の操作を適用した後の配列
+    private int[] keyframes;
+    private int keyframeCount;
+
+    // 操作ログ（列ごとに保持）
+    private int[] types;
+    private int[] opI;
+    private int[] opJ;
+    private int[] opValues;
+    private int operationCount;
+
+    public StoredSortTrace(List<Integer> initialArray, int keyframeInterval) {
+        if (keyframeInterval < 1) {
+            throw new IllegalArgumentException("キーフレーム間隔は1以上で指定してください");
+        }
+        this.arrayLength = initialArray.size();
+        this.keyframeInterval = keyframeInterval;
+        this.keyframes = new int[arrayLength * 4];
+        this.types = new int[64];
+        this.opI = new int[64];
+        this.opJ = new int[64];
+        this.opValues = new int[64];
+        addKeyframe(initialArray.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    @Override
+    public void record(int[] array, SortOperation operation) {
+        if (operationCount == types.length) {
+            int capacity = types.length * 2;
+            types = Arrays.copyOf(types, capacity);
+            opI = Arrays.copyOf(opI, capacity);
+            opJ = Arrays.copyOf(opJ, capacity);
+            opValues = Arrays.copyOf(opValues, capacity);
+        }
+
+        types[operationCount] = typeCode(operation.getType());
+        opI[operationCount] = operation.getI();
+        opJ[operationCount] = operation.getJ();
+        opValues[operationCount] = operation.getValue();
+        operationCount++;
+
+        if (operationCount % keyframeInterval == 0) {
+            addKeyframe(array);
+        }
+    }
+
+    private static int typeCode(String type) {
+        switch (type) {
+            case SortOperation.SWAP:
+                return SWAP;
+            case SortOperation.SET:
+                return SET;
+            default:
+                return COMPARE;
+        }
+    }
+
+    private void addKeyframe(int[] array) {
+        long required = (long) (keyframeCount + 1) * arrayLength;
+        if (required > keyframes.length) {
+            if (required > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("ソート過程が大きすぎて記録できません");
+            }
+            keyframes = Arrays.copyOf(keyframes, (int) Math.min(Math.max(required, (long) keyframes.length * 2),
+                    Integer.MAX_VALUE - 8));
+        }
+
+        System.arraycopy(array, 0, keyframes, keyframeCount * arrayLength, arrayLength);
+        keyframeCount++;
+    }
+
+    /**
+     * @return 初期配列を含めたステップ数
+     */
+    public int getTotalSteps() {
+        return operationCount + 1;
+    }
+
+    public int getArrayLength() {
+        return arrayLength;
+    }
+
+    public int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    /**
+     * 指定範囲のステップを復元する
+     * @param from 開始ステップ（含む）
+     * @param to 終了ステップ（含まない）
+     * @return 範囲内の各ステップ
+     */
+    public SortStepBuffer getSteps(int from, int to) {
+        if (from < 0 || to > getTotalSteps() || from > to) {
+            throw new IndexOutOfBoundsException("ステップの範囲が不正です: " + from + "〜" + to);
+        }
+
+        SortStepBuffer steps = new SortStepBuffer(arrayLength);
+        if (from == to) {
+            return steps;
+        }
+
+        // 直前のキーフレームから開始ステップまで再生する
+        int keyframe = from / keyframeInterval;
+        int[] work = Arrays.copyOfRange(keyframes, keyframe * arrayLength, (keyframe + 1) * arrayLength);
+        for (int op = keyframe * keyframeInterval; op < from; op++) {
+            apply(work, op);
+        }
+
+        for (int step = from; step < to; step++) {
+            if (step == 0) {
+                steps.add(work, -1, -1);
+                continue;
+            }
+            int op = step - 1;
+            if (step > from) {
+                apply(work, op);
+            }
+            steps.add(work, opI[op], opJ[op]);
+        }
+        return steps;
+    }
+
+    private void apply(int[] work, int op) {
+        switch (types[op]) {
+            case SWAP:
+                int temp = work[opI[op]];
+                work[opI[op]] = work[opJ[op]];
+                work[opJ[op]] = temp;
+                break;
+            case SET:
+                work[opI[op]] = opValues[op];
+                break;
+            default:
+                break;
+        }
+    }
+}
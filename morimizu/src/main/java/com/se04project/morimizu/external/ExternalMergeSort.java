@@ -0,0 +1,297 @@
+package com.se04project.morimizu.external;
+
+import com.se04project.morimizu.sort.AdaptiveSort;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * メモリに収まらない int のファイルをソートする外部マージソート
+ * ファイルは int をビッグエンディアン（DataOutputStream と同じ形式）で並べたバイナリとする。
+ * <ol>
+ * <li>入力をメモリの上限に収まる大きさずつメモリマップで読み、sort パッケージのアルゴリズムでソートして一時ファイル（ラン）に書き出す</li>
+ * <li>ランの先頭の値をヒープに入れ、最小の値を順に取り出して k 個のランを1つにマージする</li>
+ * <li>ランが多く、読み込み用のバッファがメモリの上限に収まらない場合は、何段かに分けてマージする</li>
+ * </ol>
+ * 使用するメモリはおおよそ指定した上限までで、入力のサイズによらない。
+ * 読み書き用のダイレクトバッファは close しても GC まで解放されないため、sort の呼び出しごとに
+ * ランの書き出し用とマージ用を1回ずつ確保し、すべてのランとマージの段で使い回す。
+ */
+public class ExternalMergeSort {
+
+    private static final long DEFAULT_MEMORY_BYTES = 64L * 1024 * 1024;
+
+    // メモリの上限として指定できる最小値
+    private static final long MIN_MEMORY_BYTES = 16 * 1024;
+
+    // マージで1つのランを読み込むバッファの最小サイズ
+    private static final int MIN_BUFFER_BYTES = 4 * 1024;
+
+    // 1回に読み書きするバッファの最大サイズ
+    private static final int MAX_BUFFER_BYTES = 8 * 1024 * 1024;
+
+    private final long memoryBytes;
+    private final Path tempDirectory;
+
+    public ExternalMergeSort() {
+        this(DEFAULT_MEMORY_BYTES, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * @param memoryBytes ソートに使うメモリの上限（バイト）
+     * @param tempDirectory ランを書き出す一時ディレクトリ
+     */
+    public ExternalMergeSort(long memoryBytes, Path tempDirectory) {
+        if (memoryBytes < MIN_MEMORY_BYTES) {
+            throw new IllegalArgumentException("メモリの上限は" + MIN_MEMORY_BYTES + "バイト以上で指定してください: " + memoryBytes);
+        }
+        this.memoryBytes = memoryBytes;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * input の int を昇順にソートして output に書き出す
+     * @param input 入力ファイル（サイズは4の倍数）
+     * @param output 出力ファイル（既にある場合は上書きする。input と同じファイルは指定できない）
+     */
+    public void sort(Path input, Path output) throws IOException {
+        // 作成した一時ファイルはすべてここに記録し、途中で失敗しても最後に削除する
+        List<Path> tempFiles = new ArrayList<>();
+        try {
+            List<Path> runs = new ArrayList<>();
+            createRuns(input, runs, tempFiles);
+
+            // 同時にマージできるランの数（各ランと出力に最小サイズのバッファを割り当てられる数）
+            int maxFanIn = (int) Math.max(2, Math.min(Integer.MAX_VALUE, memoryBytes / MIN_BUFFER_BYTES - 1));
+            ByteBuffer[] buffers = allocateMergeBuffers(Math.min(runs.size(), maxFanIn) + 1);
+            while (runs.size() > maxFanIn) {
+                List<Path> merged = new ArrayList<>();
+                for (int from = 0; from < runs.size(); from += maxFanIn) {
+                    List<Path> group = runs.subList(from, Math.min(from + maxFanIn, runs.size()));
+                    Path run = createTempRun(tempFiles);
+                    merged.add(run);
+                    merge(group, run, buffers);
+                    for (Path path : group) {
+                        Files.deleteIfExists(path);
+                    }
+                }
+                runs = merged;
+            }
+            merge(runs, output, buffers);
+        } finally {
+            for (Path file : tempFiles) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * マージ用のバッファを、合計がメモリの上限に収まる同じ大きさで確保する
+     * @param count バッファの数（同時にマージするランの数 + 出力の1つ）
+     */
+    private ByteBuffer[] allocateMergeBuffers(int count) {
+        int bufferBytes = (int) Math.min(MAX_BUFFER_BYTES,
+                Math.max(MIN_BUFFER_BYTES, memoryBytes / count / Integer.BYTES * Integer.BYTES));
+        ByteBuffer[] buffers = new ByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            buffers[i] = ByteBuffer.allocateDirect(bufferBytes);
+        }
+        return buffers;
+    }
+
+    private Path createTempRun(List<Path> tempFiles) throws IOException {
+        Path run = Files.createTempFile(tempDirectory, "sort-run", ".bin");
+        tempFiles.add(run);
+        return run;
+    }
+
+    /**
+     * 入力をメモリの上限に収まる大きさに分けてソートし、それぞれをランとして書き出す
+     * 基数ソートやマージソートは要素数分の作業用の配列を使うため、1回に読む量はメモリの上限の半分未満とする
+     */
+    private void createRuns(Path input, List<Path> runs, List<Path> tempFiles) throws IOException {
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % Integer.BYTES != 0) {
+                throw new IllegalArgumentException("入力ファイルのサイズが4の倍数ではありません: " + size);
+            }
+            int bufferBytes = (int) Math.min(MAX_BUFFER_BYTES, memoryBytes / 8);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bufferBytes);
+            long chunkBytes = Math.min((memoryBytes - bufferBytes) / 2, Integer.MAX_VALUE - 8) / Integer.BYTES * Integer.BYTES;
+            for (long position = 0; position < size; position += chunkBytes) {
+                int count = (int) (Math.min(chunkBytes, size - position) / Integer.BYTES);
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) count * Integer.BYTES);
+                int[] values = new int[count];
+                mapped.asIntBuffer().get(values);
+                AdaptiveSort.sort(values);
+
+                Path run = createTempRun(tempFiles);
+                runs.add(run);
+                try (RunWriter writer = new RunWriter(run, buffer)) {
+                    for (int value : values) {
+                        writer.write(value);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * ソート済みのランを k 方向マージして output に書き出す
+     * 最小の値を持つランをヒープ（値とランの番号の配列）で管理する
+     * @param buffers 読み書き用のバッファ（先頭を出力に、続く k 個を各ランに使う）
+     */
+    void merge(List<Path> runs, Path output, ByteBuffer[] buffers) throws IOException {
+        int k = runs.size();
+        RunReader[] readers = new RunReader[k];
+        try (RunWriter writer = new RunWriter(output, buffers[0])) {
+            int[] heapValues = new int[k];
+            int[] heapRuns = new int[k];
+            int heapSize = 0;
+            for (int r = 0; r < k; r++) {
+                readers[r] = new RunReader(runs.get(r), buffers[r + 1]);
+                if (readers[r].hasNext()) {
+                    heapValues[heapSize] = readers[r].next();
+                    heapRuns[heapSize] = r;
+                    siftUp(heapValues, heapRuns, heapSize++);
+                }
+            }
+
+            while (heapSize > 0) {
+                writer.write(heapValues[0]);
+                RunReader reader = readers[heapRuns[0]];
+                if (reader.hasNext()) {
+                    heapValues[0] = reader.next();
+                } else {
+                    heapSize--;
+                    heapValues[0] = heapValues[heapSize];
+                    heapRuns[0] = heapRuns[heapSize];
+                }
+                siftDown(heapValues, heapRuns, 0, heapSize);
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        }
+    }
+
+    private static void siftUp(int[] values, int[] runs, int i) {
+        int value = values[i];
+        int run = runs[i];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (values[parent] <= value) {
+                break;
+            }
+            values[i] = values[parent];
+            runs[i] = runs[parent];
+            i = parent;
+        }
+        values[i] = value;
+        runs[i] = run;
+    }
+
+    private static void siftDown(int[] values, int[] runs, int i, int size) {
+        int value = values[i];
+        int run = runs[i];
+        int child;
+        while ((child = 2 * i + 1) < size) {
+            if (child + 1 < size && values[child + 1] < values[child]) {
+                child++;
+            }
+            if (values[child] >= value) {
+                break;
+            }
+            values[i] = values[child];
+            runs[i] = runs[child];
+            i = child;
+        }
+        values[i] = value;
+        runs[i] = run;
+    }
+
+    /**
+     * ランを先頭から順に読む
+     */
+    private static class RunReader implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        RunReader(Path path, ByteBuffer buffer) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.buffer = buffer;
+            buffer.clear().flip();
+        }
+
+        boolean hasNext() throws IOException {
+            if (buffer.remaining() >= Integer.BYTES) {
+                return true;
+            }
+            buffer.compact();
+            while (buffer.position() < Integer.BYTES) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            return buffer.remaining() >= Integer.BYTES;
+        }
+
+        int next() {
+            return buffer.getInt();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * ランや出力ファイルに int を順に書き込む
+     */
+    private static class RunWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        RunWriter(Path path, ByteBuffer buffer) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = buffer;
+            buffer.clear();
+        }
+
+        void write(int value) throws IOException {
+            if (buffer.remaining() < Integer.BYTES) {
+                flush();
+            }
+            buffer.putInt(value);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
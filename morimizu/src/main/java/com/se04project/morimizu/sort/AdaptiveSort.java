@@ -0,0 +1,91 @@
+package com.se04project.morimizu.sort;
+
+/**
+ * 入力の特徴を調べ、最も速く終わると見込まれるアルゴリズムでソートする
+ * 特徴は SortProfile で O(n) で求め、次の順に判定する。
+ * <ol>
+ * <li>要素数が少ない場合は挿入ソート</li>
+ * <li>平均の連の長さが長い（ほぼ整列済み・逆順）場合は自然マージソート</li>
+ * <li>値の範囲が要素数以下の場合は計数ソート</li>
+ * <li>重複が多い場合は3分割のイントロソート</li>
+ * <li>要素数が多い場合は基数ソート、それ以外はイントロソート</li>
+ * </ol>
+ */
+public class AdaptiveSort {
+
+    /**
+     * 選択されるアルゴリズム
+     */
+    public enum Strategy {
+        INSERTION, NATURAL_MERGE, COUNTING, RADIX, INTROSORT
+    }
+
+    // これ以下の要素数では挿入ソートを使う
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    // 連の平均の長さがこれ以上なら自然マージソートを使う
+    private static final int MIN_AVERAGE_RUN_LENGTH = 64;
+
+    // 重複の割合がこれ以上ならイントロソートを使う
+    private static final double DUPLICATE_RATIO_THRESHOLD = 0.75;
+
+    // これ以上の要素数では基数ソートを使う
+    private static final int RADIX_SORT_THRESHOLD = 1 << 16;
+
+    public static void sort(int[] arr) {
+        sort(arr, SortObserver.NONE);
+    }
+
+    /**
+     * 入力に合わせて選んだアルゴリズムで配列を昇順にソートし、操作をオブザーバーに通知する
+     * @param arr ソート対象の配列
+     * @param observer 操作の通知先
+     * @return 使用したアルゴリズム
+     */
+    public static Strategy sort(int[] arr, SortObserver observer) {
+        Strategy strategy = choose(SortProfile.of(arr));
+        switch (strategy) {
+            case INSERTION:
+                InsertionSort.sort(arr, observer);
+                break;
+            case NATURAL_MERGE:
+                MergeSort.naturalSort(arr, observer);
+                break;
+            case COUNTING:
+                // 値の範囲が要素数以下の場合、バケットソートは計数ソートで整列する
+                BucketSort.bucketSort(arr, observer);
+                break;
+            case RADIX:
+                RadixSort.sort(arr, observer);
+                break;
+            default:
+                QuickSort.sort(arr, observer);
+        }
+        return strategy;
+    }
+
+    /**
+     * 配列の特徴からアルゴリズムを選ぶ
+     * @param profile 配列の特徴
+     * @return 選んだアルゴリズム
+     */
+    public static Strategy choose(SortProfile profile) {
+        int n = profile.getSize();
+        if (n <= INSERTION_SORT_THRESHOLD) {
+            return Strategy.INSERTION;
+        }
+        if ((long) profile.getRunCount() * MIN_AVERAGE_RUN_LENGTH <= n) {
+            return Strategy.NATURAL_MERGE;
+        }
+        if (profile.getRange() <= n) {
+            return Strategy.COUNTING;
+        }
+        if (profile.getDuplicateRatio() >= DUPLICATE_RATIO_THRESHOLD) {
+            return Strategy.INTROSORT;
+        }
+        if (n >= RADIX_SORT_THRESHOLD) {
+            return Strategy.RADIX;
+        }
+        return Strategy.INTROSORT;
+    }
+}
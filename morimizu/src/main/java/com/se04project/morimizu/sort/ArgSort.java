@@ -0,0 +1,86 @@
+package com.se04project.morimizu.sort;
+
+/**
+ * 配列を並べ替えずに、ソート後の順序（各位置に来る要素の元のインデックス）を求める
+ * 求めた順序は apply で他の列にも適用できるため、複数の列を持つデータを1つの列で並べ替える場合に使う。
+ */
+public class ArgSort {
+
+    /**
+     * 値の昇順に並べたときの元のインデックスの列を返す
+     * 同じ値は元のインデックスの順に並ぶ（安定）。
+     * @param values 値の配列（変更されない）
+     * @return result[k] が k 番目に小さい値のインデックスとなる配列
+     */
+    public static int[] argSort(int[] values) {
+        return argSort(values, false);
+    }
+
+    /**
+     * 値の昇順または降順に並べたときの元のインデックスの列を返す
+     * 同じ値はどちらの順でも元のインデックスの順に並ぶ（安定）。
+     * @param values 値の配列（変更されない）
+     * @param descending 降順の場合は true
+     * @return result[k] が k 番目の値のインデックスとなる配列
+     */
+    public static int[] argSort(int[] values, boolean descending) {
+        int n = values.length;
+        int[] keys = new int[n];
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            // ~x は大小関係を逆転させるため、降順はキーを反転した昇順として扱う
+            keys[i] = descending ? ~values[i] : values[i];
+            indices[i] = i;
+        }
+        // インデックスをペイロードとして、キーで安定ソートする
+        RecordSort.sort(keys, indices);
+        return indices;
+    }
+
+    /**
+     * 求めた順序で列を並べ替えた新しい配列を返す
+     * @param order argSort の結果
+     * @param column 並べ替える列（order と同じ長さ）
+     * @return result[k] = column[order[k]] となる配列
+     */
+    public static int[] apply(int[] order, int[] column) {
+        checkLength(order.length, column.length);
+        int[] result = new int[order.length];
+        for (int k = 0; k < order.length; k++) {
+            result[k] = column[order[k]];
+        }
+        return result;
+    }
+
+    /**
+     * 求めた順序で long の列を並べ替えた新しい配列を返す
+     * @see #apply(int[], int[])
+     */
+    public static long[] apply(int[] order, long[] column) {
+        checkLength(order.length, column.length);
+        long[] result = new long[order.length];
+        for (int k = 0; k < order.length; k++) {
+            result[k] = column[order[k]];
+        }
+        return result;
+    }
+
+    /**
+     * 求めた順序で double の列を並べ替えた新しい配列を返す
+     * @see #apply(int[], int[])
+     */
+    public static double[] apply(int[] order, double[] column) {
+        checkLength(order.length, column.length);
+        double[] result = new double[order.length];
+        for (int k = 0; k < order.length; k++) {
+            result[k] = column[order[k]];
+        }
+        return result;
+    }
+
+    private static void checkLength(int orderLength, int columnLength) {
+        if (orderLength != columnLength) {
+            throw new IllegalArgumentException("順序と列の長さが一致しません: " + orderLength + " / " + columnLength);
+        }
+    }
+}
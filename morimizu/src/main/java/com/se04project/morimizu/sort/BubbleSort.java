@@ -10,6 +10,15 @@ public class BubbleSort {
      * @param arr ソート対象の配列
      */
     public static void sort(int[] arr) {
+        sort(arr, SortObserver.NONE);
+    }
+
+    /**
+     * バブルソートで配列を昇順にソートし、操作をオブザーバーに通知する
+     * @param arr ソート対象の配列
+     * @param observer 操作の通知先
+     */
+    public static void sort(int[] arr, SortObserver observer) {
         if (arr == null || arr.length == 0) {
             return;
         }
@@ -17,11 +26,13 @@ public class BubbleSort {
         int n = arr.length;
         for (int i = 0; i < n - 1; i++) {
             for (int j = 0; j < n - i - 1; j++) {
+                observer.compare(arr, j, j + 1);
                 if (arr[j] > arr[j + 1]) {
                     // スワップ
                     int temp = arr[j];
                     arr[j] = arr[j + 1];
                     arr[j + 1] = temp;
+                    observer.swap(arr, j, j + 1);
                 }
             }
         }
@@ -1,47 +1,114 @@
 package com.se04project.morimizu.sort;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 /**
  * バケットソートアルゴリズム
+ * バケットは要素数分の1つの配列上に、各バケットの開始位置を数えて並べる。
+ * 値の範囲によらず、使うメモリは要素数に比例する。
  */
 public class BucketSort {
+
+    // 1つのバケットに入る要素数の目安
+    private static final int ELEMENTS_PER_BUCKET = 4;
+
+    // これより大きいバケットは挿入ソートではなくヒープソートで整列する
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
     public static void bucketSort(int[] arr) {
-        if (arr.length == 0) {
+        bucketSort(arr, SortObserver.NONE);
+    }
+
+    /**
+     * バケットソートで配列を昇順にソートし、操作をオブザーバーに通知する
+     * 値の範囲が要素数以下の場合は、値ごとの出現数を数える計数ソートで整列する。
+     * @param arr ソート対象の配列
+     * @param observer 操作の通知先
+     */
+    public static void bucketSort(int[] arr, SortObserver observer) {
+        int n = arr.length;
+        if (n < 2) {
             return;
         }
 
-        int max = arr[0];
-        int min = arr[0];
-        for (int num : arr) {
-            if (num > max) {
-                max = num;
-            } else if (num < min) {
-                min = num;
-            }
+        int[] minMax = VectorSupport.minMax(arr, 0, n);
+        int min = minMax[0];
+        int max = minMax[1];
+
+        long range = (long) max - min + 1;
+        if (range <= n) {
+            countingSort(arr, min, (int) range, observer);
+            return;
         }
 
-        // バケットを作成
-        List<List<Integer>> buckets = new ArrayList<>();
-        for (int i = 0; i <= max - min; i++) {
-            buckets.add(new ArrayList<>());
+        // バケット数は要素数から決め、値の範囲で上限を抑える
+        int bucketCount = (int) Math.min(range, Math.max(1, n / ELEMENTS_PER_BUCKET));
+
+        // 各バケットの要素数を数え、累積和をバケットの開始位置にする
+        int[] starts = new int[bucketCount + 1];
+        for (int num : arr) {
+            starts[bucketIndex(num, min, range, bucketCount) + 1]++;
+        }
+        for (int b = 0; b < bucketCount; b++) {
+            starts[b + 1] += starts[b];
         }
 
         // 各要素をバケットに分配
+        int[] buffer = new int[n];
+        int[] next = new int[bucketCount];
+        System.arraycopy(starts, 0, next, 0, bucketCount);
         for (int num : arr) {
-            int bucketIndex = num - min;
-            buckets.get(bucketIndex).add(num);
+            buffer[next[bucketIndex(num, min, range, bucketCount)]++] = num;
         }
 
-        // 各バケットをソート＆元の配列に戻す
+        // 各バケットを作業用の配列上でソートしてから元の配列に戻す
+        for (int b = 0; b < bucketCount; b++) {
+            int from = starts[b];
+            int to = starts[b + 1];
+            if (to - from > INSERTION_SORT_THRESHOLD) {
+                HeapSort.heapSort(buffer, from, to, SortObserver.NONE);
+            } else {
+                insertionSort(buffer, from, to);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            arr[i] = buffer[i];
+            observer.set(arr, i, -1);
+        }
+    }
+
+    private static int bucketIndex(int num, int min, long range, int bucketCount) {
+        return (int) (((long) num - min) * bucketCount / range);
+    }
+
+    /**
+     * 値ごとの出現数を数えて並べる計数ソート
+     * @param range 値の範囲（max - min + 1、要素数以下）
+     */
+    private static void countingSort(int[] arr, int min, int range, SortObserver observer) {
+        int[] counts = new int[range];
+        for (int num : arr) {
+            counts[num - min]++;
+        }
         int index = 0;
-        for (List<Integer> bucket : buckets) {
-            Collections.sort(bucket);
-            for (int num : bucket) {
-                arr[index++] = num;
+        for (int v = 0; v < range; v++) {
+            for (int c = counts[v]; c > 0; c--) {
+                arr[index] = v + min;
+                observer.set(arr, index++, -1);
+            }
+        }
+    }
+
+    /**
+     * 区間 [from, to) を挿入ソートで整列する
+     */
+    private static void insertionSort(int[] arr, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int key = arr[i];
+            int j = i - 1;
+            while (j >= from && arr[j] > key) {
+                arr[j + 1] = arr[j];
+                j--;
             }
+            arr[j + 1] = key;
         }
     }
 }
@@ -0,0 +1,49 @@
+package com.se04project.morimizu.sort;
+
+/**
+ * double 配列のソート
+ * 並び順は Double.compare と同じで、-0.0 は 0.0 より前、NaN はすべて末尾に置く。
+ * <p>
+ * NaN を末尾に移した後、残りの値のビット列を大小関係を保つ long のキーに変換して LongSort で基数ソートし、
+ * double に戻す。変換では負の数だけ符号ビット以外を反転する。
+ * 各値（NaN を含む）のビット列はそのまま保たれる。
+ */
+public class DoubleSort {
+
+    /**
+     * double 配列を昇順にソートする
+     * @param arr ソート対象の配列
+     */
+    public static void sort(double[] arr) {
+        // NaN を末尾に集める
+        int end = arr.length;
+        for (int i = end - 1; i >= 0; i--) {
+            if (Double.isNaN(arr[i])) {
+                double nan = arr[i];
+                arr[i] = arr[--end];
+                arr[end] = nan;
+            }
+        }
+
+        long[] keys = new long[end];
+        for (int i = 0; i < end; i++) {
+            keys[i] = toKey(Double.doubleToRawLongBits(arr[i]));
+        }
+        LongSort.sort(keys);
+        for (int i = 0; i < end; i++) {
+            arr[i] = Double.longBitsToDouble(fromKey(keys[i]));
+        }
+    }
+
+    /**
+     * 大小関係が符号付き long の大小関係と一致するキーに変換する
+     * （LongSort は符号ビットを反転して分配するため、ここでは符号付きの順序に合わせる）
+     */
+    private static long toKey(long bits) {
+        return bits < 0 ? bits ^ Long.MAX_VALUE : bits;
+    }
+
+    private static long fromKey(long key) {
+        return key < 0 ? key ^ Long.MAX_VALUE : key;
+    }
+}
@@ -0,0 +1,144 @@
+package com.se04project.morimizu.sort;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * シェルソートのギャップ列
+ * 各ギャップ列は要素数 n より小さいギャップを大きい順に返し、最後は必ず1になる。
+ */
+public enum GapSequence {
+
+    /**
+     * Shell の元の列（n/2, n/4, ..., 1）。最悪計算量は O(n^2)
+     */
+    SHELL {
+        @Override
+        int[] ascending(int n) {
+            int[] gaps = new int[31 - Integer.numberOfLeadingZeros(n)];
+            int k = gaps.length;
+            for (int gap = n / 2; gap > 0; gap /= 2) {
+                gaps[--k] = gap;
+            }
+            return gaps;
+        }
+    },
+
+    /**
+     * Ciura が実験で求めた列（1, 4, 10, 23, 57, 132, 301, 701, 1750）。以降は 2.25 倍ずつ延長する
+     */
+    CIURA {
+        private final int[] known = { 1, 4, 10, 23, 57, 132, 301, 701, 1750 };
+
+        @Override
+        int[] ascending(int n) {
+            long[] gaps = new long[64];
+            int count = 0;
+            for (long gap = 1; gap < n; count++) {
+                gaps[count] = gap;
+                gap = count + 1 < known.length ? known[count + 1] : (long) (gap * 2.25);
+            }
+            return toIntArray(gaps, count);
+        }
+    },
+
+    /**
+     * Tokuda の列（ceil((9 * (9/4)^(k-1) - 4) / 5)）: 1, 4, 9, 20, 46, 103, ...
+     */
+    TOKUDA {
+        @Override
+        int[] ascending(int n) {
+            long[] gaps = new long[64];
+            int count = 0;
+            double power = 1;
+            for (long gap = 1; gap < n; count++) {
+                gaps[count] = gap;
+                power *= 2.25;
+                gap = (long) Math.ceil((9 * power - 4) / 5);
+            }
+            return toIntArray(gaps, count);
+        }
+    },
+
+    /**
+     * Sedgewick の列（4^k + 3 * 2^(k-1) + 1）: 1, 8, 23, 77, 281, ... 最悪計算量は O(n^(4/3))
+     */
+    SEDGEWICK {
+        @Override
+        int[] ascending(int n) {
+            long[] gaps = new long[64];
+            int count = 0;
+            for (long gap = 1; gap < n; count++) {
+                gaps[count] = gap;
+                int k = count + 1;
+                gap = (1L << (2 * k)) + 3 * (1L << (k - 1)) + 1;
+            }
+            return toIntArray(gaps, count);
+        }
+    },
+
+    /**
+     * Pratt の列（2^p * 3^q）。最悪計算量は O(n log^2 n) だがギャップの数が多い
+     */
+    PRATT {
+        @Override
+        int[] ascending(int n) {
+            long[] gaps = new long[32 * 21];
+            int count = 0;
+            for (long pow2 = 1; pow2 < n; pow2 *= 2) {
+                for (long gap = pow2; gap < n; gap *= 3) {
+                    gaps[count++] = gap;
+                }
+            }
+            Arrays.sort(gaps, 0, count);
+            return toIntArray(gaps, count);
+        }
+    };
+
+    /**
+     * 要素数 n のシェルソートで使うギャップを大きい順に返す
+     * @param n 要素数
+     * @return ギャップの配列（n が2以上なら最後は1）
+     */
+    public int[] gaps(int n) {
+        if (n < 2) {
+            return new int[0];
+        }
+        int[] gaps = ascending(n);
+        for (int i = 0, j = gaps.length - 1; i < j; i++, j--) {
+            int temp = gaps[i];
+            gaps[i] = gaps[j];
+            gaps[j] = temp;
+        }
+        return gaps;
+    }
+
+    /**
+     * n より小さいギャップを小さい順に返す（n は2以上）
+     */
+    abstract int[] ascending(int n);
+
+    /**
+     * 名前（大文字・小文字は区別しない）からギャップ列を返す
+     * @param name ギャップ列の名前（null の場合は SHELL）
+     * @throws IllegalArgumentException 該当するギャップ列がない場合
+     */
+    public static GapSequence fromName(String name) {
+        if (name == null || name.isEmpty()) {
+            return SHELL;
+        }
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("不明なギャップ列です: " + name);
+        }
+    }
+
+    private static int[] toIntArray(long[] values, int count) {
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = (int) values[i];
+        }
+        return result;
+    }
+}
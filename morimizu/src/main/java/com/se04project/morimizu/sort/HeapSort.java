@@ -1,48 +1,170 @@
 package com.se04project.morimizu.sort;
 
+/**
+ * ヒープソートアルゴリズムの実装
+ * ヒープの大きさは引数で受け渡し、静的な状態を持たないため、複数スレッドから同時に呼び出せる。
+ * 作業用の配列は確保せず、ヒープの調整は再帰を使わずに行う。
+ */
 public class HeapSort {
-    static int length;
 
     public static void heapSort(int[] arr) {
-        length = arr.length;
+        heapSort(arr, SortObserver.NONE);
+    }
+
+    /**
+     * ヒープソートで配列を昇順にソートし、操作をオブザーバーに通知する
+     * @param arr ソート対象の配列
+     * @param observer 操作の通知先
+     */
+    public static void heapSort(int[] arr, SortObserver observer) {
+        heapSort(arr, 0, arr.length, observer);
+    }
+
+    /**
+     * 配列の区間 [from, to) をヒープソートで昇順にソートし、操作をオブザーバーに通知する
+     * @param arr ソート対象の配列
+     * @param from 開始インデックス（含む）
+     * @param to 終了インデックス（含まない）
+     * @param observer 操作の通知先
+     */
+    public static void heapSort(int[] arr, int from, int to, SortObserver observer) {
+        int length = to - from;
+        if (length < 1)
+            return;
+
+        buildMaxHeap(arr, from, length, observer);
+        while (length > 1) {
+            swap(arr, from, from + length - 1, observer);
+            length--;
+            adjustHeap(arr, from, 0, length, observer);
+        }
+    }
+
+    /**
+     * d 分木のヒープを使うヒープソートで配列を昇順にソートする
+     * 子が連続して並ぶため、大きな配列ではキャッシュの効率が2分木より良い。
+     * @param arr ソート対象の配列
+     * @param arity 各節点の子の数（2以上）
+     */
+    public static void dAryHeapSort(int[] arr, int arity) {
+        dAryHeapSort(arr, 0, arr.length, arity, SortObserver.NONE);
+    }
+
+    /**
+     * 配列の区間 [from, to) を d 分木のヒープを使うヒープソートで昇順にソートし、操作をオブザーバーに通知する
+     * @param arr ソート対象の配列
+     * @param from 開始インデックス（含む）
+     * @param to 終了インデックス（含まない）
+     * @param arity 各節点の子の数（2以上）
+     * @param observer 操作の通知先
+     */
+    public static void dAryHeapSort(int[] arr, int from, int to, int arity, SortObserver observer) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("子の数は2以上で指定してください: " + arity);
+        }
+        int length = to - from;
         if (length < 1)
             return;
 
-        buildMaxHeap(arr);
-        while (length > 0) {
-            swap(arr, 0, length - 1);
+        for (int i = (length - 2) / arity; i >= 0; i--) {
+            adjustDAryHeap(arr, from, i, length, arity, observer);
+        }
+        while (length > 1) {
+            swap(arr, from, from + length - 1, observer);
             length--;
-            adjustHeap(arr, 0);
+            adjustDAryHeap(arr, from, 0, length, arity, observer);
         }
     }
 
-    public static void buildMaxHeap(int[] arr) {
+    public static void buildMaxHeap(int[] arr, int from, int length, SortObserver observer) {
         for (int i = (length / 2 - 1); i >= 0; i--) {
-            adjustHeap(arr, i);
+            adjustHeap(arr, from, i, length, observer);
         }
     }
 
-    public static void adjustHeap(int[] arr, int i) {
-        int maxIndex = i;
+    /**
+     * arr[from] を根とするヒープで、i 番目（from からの相対位置）の要素を下へ移動させる
+     * Floyd の方法で、まず大きい方の子をたどって葉まで下り、そこから要素の入る位置まで戻る。
+     * 下へ移動する要素は葉の近くに落ち着くことが多いため、比較の回数がおよそ半分になる。
+     */
+    public static void adjustHeap(int[] arr, int from, int i, int length, SortObserver observer) {
+        // 大きい方の子をたどって葉まで下りる
+        int j = i;
+        int child;
+        while ((child = 2 * j + 1) < length) {
+            if (child + 1 < length) {
+                observer.compare(arr, from + child + 1, from + child);
+                if (arr[from + child + 1] > arr[from + child]) {
+                    child++;
+                }
+            }
+            j = child;
+        }
+
+        // 移動する要素より大きい位置まで戻る
+        int value = arr[from + i];
+        while (j > i) {
+            observer.compare(arr, from + i, from + j);
+            if (arr[from + j] >= value) {
+                break;
+            }
+            j = (j - 1) / 2;
+        }
+        if (j == i) {
+            return;
+        }
 
-        int left = i * 2 + 1;
-        int right = i * 2 + 2;
-        if (left < length && arr[left] > arr[maxIndex]) {
-            maxIndex = left;
+        // i から j までの経路上の要素を1段ずつ上へ移し、空いた j に要素を入れる
+        int levels = depth(j) - depth(i);
+        int parent = i;
+        for (int k = levels - 1; k >= 0; k--) {
+            int node = ((j + 1) >> k) - 1;
+            arr[from + parent] = arr[from + node];
+            observer.set(arr, from + parent, from + node);
+            parent = node;
         }
-        if (right < length && arr[right] > arr[maxIndex]) {
-            maxIndex = right;
+        arr[from + j] = value;
+        observer.set(arr, from + j, -1);
+    }
+
+    /**
+     * arr[from] を根とする d 分木のヒープで、i 番目の要素を下へ移動させる
+     */
+    private static void adjustDAryHeap(int[] arr, int from, int i, int length, int arity, SortObserver observer) {
+        int value = arr[from + i];
+        int hole = i;
+        int first;
+        while ((first = arity * hole + 1) < length) {
+            int maxChild = first;
+            int last = Math.min(first + arity, length);
+            for (int child = first + 1; child < last; child++) {
+                observer.compare(arr, from + child, from + maxChild);
+                if (arr[from + child] > arr[from + maxChild]) {
+                    maxChild = child;
+                }
+            }
+            if (arr[from + maxChild] <= value) {
+                break;
+            }
+            arr[from + hole] = arr[from + maxChild];
+            observer.set(arr, from + hole, from + maxChild);
+            hole = maxChild;
         }
-        if (maxIndex != i) {
-            swap(arr, maxIndex, i);
-            adjustHeap(arr, maxIndex);
+        if (hole != i) {
+            arr[from + hole] = value;
+            observer.set(arr, from + hole, -1);
         }
     }
 
-    public static void swap(int[] arr, int from, int to) {
-        int temp = 0;
-        temp = arr[from];
+    // 根を深さ0とした2分木での深さ
+    private static int depth(int index) {
+        return 31 - Integer.numberOfLeadingZeros(index + 1);
+    }
+
+    public static void swap(int[] arr, int from, int to, SortObserver observer) {
+        int temp = arr[from];
         arr[from] = arr[to];
         arr[to] = temp;
+        observer.swap(arr, from, to);
     }
 }
@@ -5,16 +5,38 @@ package com.se04project.morimizu.sort;
  */
 public class InsertionSort {
     public static void sort(int[] arr) {
-        for (int i = 1; i < arr.length; i++) {
+        sort(arr, SortObserver.NONE);
+    }
+
+    /**
+     * 挿入ソートで配列を昇順にソートし、操作をオブザーバーに通知する
+     * @param arr ソート対象の配列
+     * @param observer 操作の通知先
+     */
+    public static void sort(int[] arr, SortObserver observer) {
+        sort(arr, 0, arr.length, observer);
+    }
+
+    /**
+     * 配列の区間 [from, to) を挿入ソートで昇順にソートし、操作をオブザーバーに通知する
+     * @param arr ソート対象の配列
+     * @param from 開始インデックス（含む）
+     * @param to 終了インデックス（含まない）
+     * @param observer 操作の通知先
+     */
+    public static void sort(int[] arr, int from, int to, SortObserver observer) {
+        for (int i = from + 1; i < to; i++) {
             int val = arr[i];
             int j = i - 1;
 
-            while (j >= 0 && arr[j] > val) {
+            while (j >= from && arr[j] > val) {
                 // 条件に一致した場合、配列のインデックスを上げる
                 arr[j + 1] = arr[j];
+                observer.set(arr, j + 1, j);
                 j--;
             }
             arr[j + 1] = val;
+            observer.set(arr, j + 1, -1);
         }
     }
-}
\ No newline at end of file
+}
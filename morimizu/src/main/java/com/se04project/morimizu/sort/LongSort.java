@@ -0,0 +1,98 @@
+package com.se04project.morimizu.sort;
+
+/**
+ * long 配列のソート
+ * RadixSort と同じく8ビットずつの桁で下位から分配する LSD 基数ソートで、符号ビットを反転したキーで分配する。
+ * 要素数が少ない区間は挿入ソートで整列する。
+ */
+public class LongSort {
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int PASSES = Long.SIZE / RADIX_BITS;
+
+    // これ以下の要素数では挿入ソートを使う
+    private static final int INSERTION_SORT_THRESHOLD = 64;
+
+    /**
+     * long 配列を昇順にソートする
+     * @param arr ソート対象の配列
+     */
+    public static void sort(long[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    /**
+     * long 配列の区間 [from, to) を昇順にソートする
+     * すべての要素で同じ値になる桁の分配は省略する。
+     * @param arr ソート対象の配列
+     * @param from 開始インデックス（含む）
+     * @param to 終了インデックス（含まない）
+     */
+    public static void sort(long[] arr, int from, int to) {
+        int n = to - from;
+        if (n <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(arr, from, to);
+            return;
+        }
+
+        int[] counts = new int[PASSES * RADIX];
+        for (int i = from; i < to; i++) {
+            long key = arr[i] ^ Long.MIN_VALUE;
+            for (int pass = 0; pass < PASSES; pass++) {
+                counts[pass * RADIX + (int) ((key >>> (pass * RADIX_BITS)) & (RADIX - 1))]++;
+            }
+        }
+
+        // 区間と作業用の配列を交互に使い、最後に区間へ書き戻す
+        long[] src = arr;
+        int srcFrom = from;
+        long[] dst = new long[n];
+        int dstFrom = 0;
+        for (int pass = 0; pass < PASSES; pass++) {
+            int shift = pass * RADIX_BITS;
+            int offset = pass * RADIX;
+            if (counts[offset + digit(src[srcFrom], shift)] == n) {
+                continue;
+            }
+
+            int sum = dstFrom;
+            for (int d = 0; d < RADIX; d++) {
+                int count = counts[offset + d];
+                counts[offset + d] = sum;
+                sum += count;
+            }
+            for (int i = srcFrom; i < srcFrom + n; i++) {
+                long value = src[i];
+                dst[counts[offset + digit(value, shift)]++] = value;
+            }
+
+            long[] temp = src;
+            src = dst;
+            dst = temp;
+            int tempFrom = srcFrom;
+            srcFrom = dstFrom;
+            dstFrom = tempFrom;
+        }
+        if (src != arr) {
+            System.arraycopy(src, srcFrom, arr, from, n);
+        }
+    }
+
+    // 符号ビットを反転したキーの shift ビット目からの桁
+    private static int digit(long value, int shift) {
+        return (int) (((value ^ Long.MIN_VALUE) >>> shift) & (RADIX - 1));
+    }
+
+    private static void insertionSort(long[] arr, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            long val = arr[i];
+            int j = i - 1;
+            while (j >= from && arr[j] > val) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = val;
+        }
+    }
+}
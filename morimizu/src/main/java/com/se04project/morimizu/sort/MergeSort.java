@@ -1,33 +1,56 @@
 package com.se04project.morimizu.sort;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * マージソートアルゴリズムの実装
  */
 public class MergeSort {
+
+    // 自然マージソートで、これより短い連は挿入ソートで延ばす
+    private static final int MIN_RUN = 32;
+
+    // これ以下の区間は並列化せず、呼び出したスレッドで処理する
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+    private static final int PARALLEL_MERGE_THRESHOLD = 1 << 13;
     
     /**
      * マージソートで配列を昇順にソートする
      * @param arr ソート対象の配列
      */
     public static void sort(int[] arr) {
+        sort(arr, SortObserver.NONE);
+    }
+
+    /**
+     * マージソートで配列を昇順にソートし、操作をオブザーバーに通知する
+     * @param arr ソート対象の配列
+     * @param observer 操作の通知先
+     */
+    public static void sort(int[] arr, SortObserver observer) {
         if (arr == null || arr.length == 0) {
             return;
         }
-        mergeSort(arr, 0, arr.length - 1);
+        // 作業用の配列は最初に1回だけ確保する
+        int[] buffer = new int[arr.length];
+        mergeSort(arr, 0, arr.length - 1, buffer, observer);
     }
     
     /**
      * マージソートの再帰的な実装
-     * @param arr ソート対象の配列
+     * @param arr 配列
      * @param left 開始インデックス
      * @param right 終了インデックス
+     * @param buffer 作業用の配列（arr と同じ長さ）
+     * @param observer 操作の通知先
      */
-    private static void mergeSort(int[] arr, int left, int right) {
+    private static void mergeSort(int[] arr, int left, int right, int[] buffer, SortObserver observer) {
         if (left < right) {
             int mid = left + (right - left) / 2;
-            mergeSort(arr, left, mid);
-            mergeSort(arr, mid + 1, right);
-            merge(arr, left, mid, right);
+            mergeSort(arr, left, mid, buffer, observer);
+            mergeSort(arr, mid + 1, right, buffer, observer);
+            merge(arr, left, mid, right, buffer, observer);
         }
     }
     
@@ -37,39 +60,289 @@ public class MergeSort {
      * @param left 左の開始インデックス
      * @param mid 中間インデックス
      * @param right 右の終了インデックス
+     * @param buffer 作業用の配列（arr と同じ長さ）
+     * @param observer 操作の通知先
      */
-    private static void merge(int[] arr, int left, int mid, int right) {
-        int[] leftArr = new int[mid - left + 1];
-        int[] rightArr = new int[right - mid];
-        
-        // 左の部分配列をコピー
-        for (int i = 0; i < leftArr.length; i++) {
-            leftArr[i] = arr[left + i];
-        }
-        
-        // 右の部分配列をコピー
-        for (int i = 0; i < rightArr.length; i++) {
-            rightArr[i] = arr[mid + 1 + i];
-        }
+    private static void merge(int[] arr, int left, int mid, int right, int[] buffer, SortObserver observer) {
+        // 左右の部分配列を作業用の配列の同じ位置にコピー
+        System.arraycopy(arr, left, buffer, left, right - left + 1);
         
-        int i = 0, j = 0, k = left;
+        int i = left, j = mid + 1, k = left;
         
         // マージ処理
-        while (i < leftArr.length && j < rightArr.length) {
-            if (leftArr[i] <= rightArr[j]) {
-                arr[k++] = leftArr[i++];
+        while (i <= mid && j <= right) {
+            if (buffer[i] <= buffer[j]) {
+                arr[k] = buffer[i++];
             } else {
-                arr[k++] = rightArr[j++];
+                arr[k] = buffer[j++];
             }
+            observer.set(arr, k++, -1);
         }
         
         // 残りの要素をコピー
-        while (i < leftArr.length) {
-            arr[k++] = leftArr[i++];
+        while (i <= mid) {
+            arr[k] = buffer[i++];
+            observer.set(arr, k++, -1);
         }
         
-        while (j < rightArr.length) {
-            arr[k++] = rightArr[j++];
+        while (j <= right) {
+            arr[k] = buffer[j++];
+            observer.set(arr, k++, -1);
+        }
+    }
+
+    /**
+     * 自然マージソートで配列を昇順にソートする
+     * @param arr ソート対象の配列
+     */
+    public static void naturalSort(int[] arr) {
+        naturalSort(arr, SortObserver.NONE);
+    }
+
+    /**
+     * 自然マージソートで配列を昇順にソートし、操作をオブザーバーに通知する
+     * TimSort と同様に入力中の昇順・降順の連をそのまま使い、隣り合う連を順にマージする。
+     * 降順の連は反転し、MIN_RUN より短い連は挿入ソートで延ばす。
+     * ソート済みの入力は1回の走査だけで終わる。
+     * @param arr ソート対象の配列
+     * @param observer 操作の通知先
+     */
+    public static void naturalSort(int[] arr, SortObserver observer) {
+        if (arr == null || arr.length < 2) {
+            return;
+        }
+        int n = arr.length;
+
+        // 各連の開始位置（最後の連以外は MIN_RUN 以上なので、連の数は n / MIN_RUN + 1 以下）
+        int[] runStarts = new int[n / MIN_RUN + 2];
+        int runCount = 0;
+        for (int lo = 0; lo < n;) {
+            int hi = runEnd(arr, lo, n, observer);
+            if (hi - lo < MIN_RUN) {
+                int end = Math.min(lo + MIN_RUN, n);
+                extendRun(arr, lo, hi, end, observer);
+                hi = end;
+            }
+            runStarts[runCount++] = lo;
+            lo = hi;
+        }
+        runStarts[runCount] = n;
+
+        // 隣り合う連を2つずつマージし、連が1つになるまで繰り返す
+        int[] buffer = runCount > 1 ? new int[n] : null;
+        while (runCount > 1) {
+            int merged = 0;
+            for (int r = 0; r < runCount; r += 2) {
+                if (r + 1 < runCount) {
+                    int mid = runStarts[r + 1];
+                    if (arr[mid - 1] > arr[mid]) {
+                        merge(arr, runStarts[r], mid - 1, runStarts[r + 2] - 1, buffer, observer);
+                    }
+                }
+                runStarts[merged++] = runStarts[r];
+            }
+            runStarts[merged] = n;
+            runCount = merged;
+        }
+    }
+
+    /**
+     * lo から始まる連の終了位置（含まない）を返す
+     * 狭義の降順の連は反転して昇順にする
+     */
+    private static int runEnd(int[] arr, int lo, int n, SortObserver observer) {
+        int hi = lo + 1;
+        if (hi == n) {
+            return hi;
+        }
+        if (arr[hi] < arr[lo]) {
+            while (hi + 1 < n && arr[hi + 1] < arr[hi]) {
+                hi++;
+            }
+            for (int i = lo, j = hi; i < j; i++, j--) {
+                int temp = arr[i];
+                arr[i] = arr[j];
+                arr[j] = temp;
+                observer.swap(arr, i, j);
+            }
+        } else {
+            while (hi + 1 < n && arr[hi + 1] >= arr[hi]) {
+                hi++;
+            }
+        }
+        return hi + 1;
+    }
+
+    /**
+     * ソート済みの区間 [lo, start) に [start, hi) の要素を挿入していき、[lo, hi) を整列する
+     */
+    private static void extendRun(int[] arr, int lo, int start, int hi, SortObserver observer) {
+        for (int i = start; i < hi; i++) {
+            int val = arr[i];
+            int j = i - 1;
+            while (j >= lo && arr[j] > val) {
+                arr[j + 1] = arr[j];
+                observer.set(arr, j + 1, j);
+                j--;
+            }
+            if (j + 1 != i) {
+                arr[j + 1] = val;
+                observer.set(arr, j + 1, -1);
+            }
+        }
+    }
+
+    /**
+     * 共通の ForkJoinPool を使い、マージソートで配列を並列に昇順ソートする
+     * @param arr ソート対象の配列
+     */
+    public static void parallelSort(int[] arr) {
+        parallelSort(arr, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 指定した ForkJoinPool を使い、マージソートで配列を並列に昇順ソートする
+     * 作業用の配列は最初に1回だけ確保し、各段で元の配列と作業用の配列の役割を入れ替えながらマージする。
+     * 上位の段ではマージ自体も分割して並列に行う。
+     * @param arr ソート対象の配列
+     * @param pool 使用するスレッドプール
+     */
+    public static void parallelSort(int[] arr, ForkJoinPool pool) {
+        if (arr == null || arr.length < 2) {
+            return;
+        }
+        // 両方の配列に同じデータを置き、作業用の配列を使って arr に結果を書き込む
+        int[] buffer = arr.clone();
+        pool.invoke(new SortTask(buffer, arr, 0, arr.length));
+    }
+
+    /**
+     * src を作業領域として使い、区間 [lo, hi) をソートした結果を dst に書き込む
+     * 呼び出し時点で src と dst の区間内には同じデータが入っていること
+     */
+    private static void sortInto(int[] src, int[] dst, int lo, int hi) {
+        // 小さい区間はソーティングネットワーク（使えない環境では挿入ソート）でまとめてソートする
+        if (hi - lo <= VectorSupport.SMALL_SORT_SIZE) {
+            VectorSupport.sortSmall(dst, lo, hi);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        // 左右の半分を src 側にソートしてから dst にマージする
+        sortInto(dst, src, lo, mid);
+        sortInto(dst, src, mid, hi);
+        mergeInto(src, lo, mid, mid, hi, dst, lo);
+    }
+
+    /**
+     * src の2つのソート済み区間 [aLo, aHi) と [bLo, bHi) を dst の dLo 以降にマージする
+     */
+    private static void mergeInto(int[] src, int aLo, int aHi, int bLo, int bHi, int[] dst, int dLo) {
+        int i = aLo, j = bLo, k = dLo;
+        while (i < aHi && j < bHi) {
+            dst[k++] = src[i] <= src[j] ? src[i++] : src[j++];
+        }
+        System.arraycopy(src, i, dst, k, aHi - i);
+        System.arraycopy(src, j, dst, k + (aHi - i), bHi - j);
+    }
+
+    /**
+     * 区間 [lo, hi) を並列にソートするタスク
+     */
+    private static class SortTask extends RecursiveAction {
+        private final int[] src;
+        private final int[] dst;
+        private final int lo;
+        private final int hi;
+
+        SortTask(int[] src, int[] dst, int lo, int hi) {
+            this.src = src;
+            this.dst = dst;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= PARALLEL_SORT_THRESHOLD) {
+                sortInto(src, dst, lo, hi);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SortTask(dst, src, lo, mid), new SortTask(dst, src, mid, hi));
+            new MergeTask(src, lo, mid, mid, hi, dst, lo).compute();
+        }
+    }
+
+    /**
+     * 2つのソート済み区間を並列にマージするタスク
+     * 長い方の区間の中央値で両区間を分割し、前半と後半を独立にマージする
+     */
+    private static class MergeTask extends RecursiveAction {
+        private final int[] src;
+        private final int aLo;
+        private final int aHi;
+        private final int bLo;
+        private final int bHi;
+        private final int[] dst;
+        private final int dLo;
+
+        MergeTask(int[] src, int aLo, int aHi, int bLo, int bHi, int[] dst, int dLo) {
+            this.src = src;
+            this.aLo = aLo;
+            this.aHi = aHi;
+            this.bLo = bLo;
+            this.bHi = bHi;
+            this.dst = dst;
+            this.dLo = dLo;
+        }
+
+        @Override
+        protected void compute() {
+            int aLength = aHi - aLo;
+            int bLength = bHi - bLo;
+            if (aLength + bLength <= PARALLEL_MERGE_THRESHOLD) {
+                mergeInto(src, aLo, aHi, bLo, bHi, dst, dLo);
+                return;
+            }
+
+            int aSplit;
+            int bSplit;
+            if (aLength >= bLength) {
+                aSplit = (aLo + aHi) >>> 1;
+                bSplit = lowerBound(src, bLo, bHi, src[aSplit]);
+            } else {
+                bSplit = (bLo + bHi) >>> 1;
+                aSplit = upperBound(src, aLo, aHi, src[bSplit]);
+            }
+            int dSplit = dLo + (aSplit - aLo) + (bSplit - bLo);
+            invokeAll(new MergeTask(src, aLo, aSplit, bLo, bSplit, dst, dLo),
+                    new MergeTask(src, aSplit, aHi, bSplit, bHi, dst, dSplit));
+        }
+    }
+
+    // key 以上の最初の位置
+    private static int lowerBound(int[] arr, int lo, int hi, int key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arr[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // key より大きい最初の位置
+    private static int upperBound(int[] arr, int lo, int hi, int key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arr[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
         }
+        return lo;
     }
 }
@@ -2,60 +2,148 @@ package com.se04project.morimizu.sort;
 
 /**
  * クイックソートアルゴリズムの実装
+ * イントロソートとして実装しており、入力の並びによらず最悪でも O(n log n) で終わる。
+ * <ul>
+ * <li>ピボットは3点の中央値（大きい区間では9点の中央値の中央値）から選ぶ</li>
+ * <li>ピボットより小さい・等しい・大きいの3つに分割するため、重複の多い入力でも遅くならない</li>
+ * <li>再帰は小さい側の区間だけに行い、大きい側はループで処理するためスタックは O(log n)</li>
+ * <li>分割の深さが 2 log n を超えた区間はヒープソートに切り替える</li>
+ * <li>64要素以下の区間は分割せずにまとめてソートする。オブザーバーがない場合は VectorSupport.sortSmall、
+ * ある場合は各操作を通知できる挿入ソートを使う（VectorSupport のスカラー処理と同じ挿入ソート）。
+ * 区間の切り方は共通なので、可視化される分割の過程はベンチマークで計測する処理と一致する</li>
+ * </ul>
  */
 public class QuickSort {
+
+    // これより大きい区間では9点の中央値の中央値をピボットにする
+    private static final int NINTHER_THRESHOLD = 40;
     
     /**
      * クイックソートで配列を昇順にソートする
      * @param arr ソート対象の配列
      */
     public static void sort(int[] arr) {
+        sort(arr, SortObserver.NONE);
+    }
+
+    /**
+     * クイックソートで配列を昇順にソートし、操作をオブザーバーに通知する
+     * @param arr ソート対象の配列
+     * @param observer 操作の通知先
+     */
+    public static void sort(int[] arr, SortObserver observer) {
         if (arr == null || arr.length == 0) {
             return;
         }
-        quickSort(arr, 0, arr.length - 1);
+        sort(arr, 0, arr.length, observer);
     }
-    
+
     /**
-     * クイックソートの再帰的な実装
+     * 配列の区間 [from, to) をクイックソートで昇順にソートし、操作をオブザーバーに通知する
      * @param arr ソート対象の配列
-     * @param low 開始インデックス
-     * @param high 終了インデックス
+     * @param from 開始インデックス（含む）
+     * @param to 終了インデックス（含まない）
+     * @param observer 操作の通知先
      */
-    private static void quickSort(int[] arr, int low, int high) {
-        if (low < high) {
-            int partitionIndex = partition(arr, low, high);
-            quickSort(arr, low, partitionIndex - 1);
-            quickSort(arr, partitionIndex + 1, high);
+    public static void sort(int[] arr, int from, int to, SortObserver observer) {
+        if (to - from < 2) {
+            return;
         }
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(to - from));
+        quickSort(arr, from, to - 1, depthLimit, observer);
     }
     
     /**
-     * 配列をパーティショニングする
+     * クイックソートの実装
      * @param arr 配列
      * @param low 開始インデックス
      * @param high 終了インデックス
-     * @return パーティショニング後のピボットのインデックス
+     * @param depthLimit ヒープソートに切り替えるまでの残りの分割回数
+     * @param observer 操作の通知先
      */
-    private static int partition(int[] arr, int low, int high) {
-        int pivot = arr[high];
-        int i = low - 1;
-        
-        for (int j = low; j < high; j++) {
-            if (arr[j] < pivot) {
-                i++;
-                // スワップ
-                int temp = arr[i];
-                arr[i] = arr[j];
-                arr[j] = temp;
+    private static void quickSort(int[] arr, int low, int high, int depthLimit, SortObserver observer) {
+        while (low < high) {
+            // 小さい区間はまとめてソートする（通知が必要な場合は要素の移動を1つずつ通知する）
+            if (high - low < VectorSupport.SMALL_SORT_SIZE) {
+                if (observer == SortObserver.NONE) {
+                    VectorSupport.sortSmall(arr, low, high + 1);
+                } else {
+                    InsertionSort.sort(arr, low, high + 1, observer);
+                }
+                return;
+            }
+            if (depthLimit-- == 0) {
+                HeapSort.heapSort(arr, low, high + 1, observer);
+                return;
             }
+
+            // 3分割: [low, lt) < pivot, [lt, gt] == pivot, (gt, high] > pivot
+            int pivot = arr[choosePivot(arr, low, high, observer)];
+            int lt = low;
+            int gt = high;
+            int i = low;
+            while (i <= gt) {
+                if (arr[i] < pivot) {
+                    swap(arr, lt++, i++, observer);
+                } else if (arr[i] > pivot) {
+                    swap(arr, i, gt--, observer);
+                } else {
+                    i++;
+                }
+            }
+
+            // 小さい側だけ再帰し、大きい側はループで続ける
+            if (lt - low < high - gt) {
+                quickSort(arr, low, lt - 1, depthLimit, observer);
+                low = gt + 1;
+            } else {
+                quickSort(arr, gt + 1, high, depthLimit, observer);
+                high = lt - 1;
+            }
+        }
+    }
+
+    /**
+     * ピボットの位置を選ぶ
+     * @return 3点（大きい区間では9点の中央値3つ）の中央値の位置
+     */
+    private static int choosePivot(int[] arr, int low, int high, SortObserver observer) {
+        int size = high - low + 1;
+        int mid = low + (high - low) / 2;
+        if (size < 3) {
+            return mid;
+        }
+        if (size <= NINTHER_THRESHOLD) {
+            return medianOfThree(arr, low, mid, high, observer);
         }
-        
-        // ピボットをスワップ
-        int temp = arr[i + 1];
-        arr[i + 1] = arr[high];
-        arr[high] = temp;
-        
-        return i + 1;
+        int step = size / 8;
+        int first = medianOfThree(arr, low, low + step, low + 2 * step, observer);
+        int second = medianOfThree(arr, mid - step, mid, mid + step, observer);
+        int third = medianOfThree(arr, high - 2 * step, high - step, high, observer);
+        return medianOfThree(arr, first, second, third, observer);
+    }
+
+    private static int medianOfThree(int[] arr, int a, int b, int c, SortObserver observer) {
+        observer.compare(arr, a, b);
+        observer.compare(arr, b, c);
+        if (arr[a] < arr[b]) {
+            if (arr[b] < arr[c]) {
+                return b;
+            }
+            observer.compare(arr, a, c);
+            return arr[a] < arr[c] ? c : a;
+        }
+        if (arr[b] > arr[c]) {
+            return b;
+        }
+        observer.compare(arr, a, c);
+        return arr[a] > arr[c] ? c : a;
+    }
+
+    private static void swap(int[] arr, int i, int j, SortObserver observer) {
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+        observer.swap(arr, i, j);
     }
 }
@@ -1,42 +1,149 @@
 package com.se04project.morimizu.sort;
 
-import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
+/**
+ * 基数ソートアルゴリズムの実装
+ * 8ビットずつの桁で下位から分配する LSD 基数ソート。
+ * 符号ビットを反転したキーで分配するため、負の数を含むすべての int を扱える。
+ * 降順の場合はさらに残りのビットも反転したキー（~x の符号ビットを反転した値）で分配するため、
+ * 昇順と同じ手間で直接降順に並べられる。
+ */
 public class RadixSort {
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int PASSES = Integer.SIZE / RADIX_BITS;
+
+    // これ以上の要素数では桁ごとの出現数を並列に数える
+    private static final int PARALLEL_HISTOGRAM_THRESHOLD = 1 << 16;
+
     public static void sort(int[] arr) {
+        sort(arr, SortObserver.NONE);
+    }
+
+    /**
+     * 基数ソートで配列を指定した順序にソートする
+     * @param arr ソート対象の配列
+     * @param order ソート順
+     */
+    public static void sort(int[] arr, SortOrder order) {
+        sort(arr, order == SortOrder.DESCENDING ? Integer.MAX_VALUE : Integer.MIN_VALUE, SortObserver.NONE);
+    }
+
+    /**
+     * 基数ソートで配列を昇順にソートし、操作をオブザーバーに通知する
+     * すべての要素で同じ値になる桁の分配は省略する。
+     * @param arr ソート対象の配列
+     * @param observer 操作の通知先
+     */
+    public static void sort(int[] arr, SortObserver observer) {
+        sort(arr, Integer.MIN_VALUE, observer);
+    }
+
+    /**
+     * @param keyMask 値との XOR で昇順に並ぶキーを作るマスク（昇順は符号ビットだけ、降順は符号ビット以外）
+     */
+    private static void sort(int[] arr, int keyMask, SortObserver observer) {
         if (arr == null || arr.length < 2) {
             return;
         }
-        int max = arr[0];
-        for (int i = 1; i < arr.length; i++) {
-            max = Math.max(max, arr[i]);
+        int n = arr.length;
+        int[] counts = n >= PARALLEL_HISTOGRAM_THRESHOLD
+                ? ForkJoinPool.commonPool().invoke(new HistogramTask(arr, 0, n, keyMask))
+                : histogram(arr, 0, n, keyMask);
+
+        // 作業用の配列は1つだけ確保し、通知が不要な場合は arr と交互に使う
+        int[] src = arr;
+        int[] dst = new int[n];
+        for (int pass = 0; pass < PASSES; pass++) {
+            int shift = pass * RADIX_BITS;
+            int offset = pass * RADIX;
+            if (counts[offset + digit(src[0], keyMask, shift)] == n) {
+                continue;
+            }
+
+            // 出現数の累積和を各桁の書き込み開始位置にする
+            int sum = 0;
+            for (int d = 0; d < RADIX; d++) {
+                int count = counts[offset + d];
+                counts[offset + d] = sum;
+                sum += count;
+            }
+            for (int i = 0; i < n; i++) {
+                int value = src[i];
+                dst[counts[offset + digit(value, keyMask, shift)]++] = value;
+            }
+
+            if (observer == SortObserver.NONE) {
+                int[] temp = src;
+                src = dst;
+                dst = temp;
+            } else {
+                // 可視化のために各パスの結果を arr に書き戻して通知する
+                for (int i = 0; i < n; i++) {
+                    arr[i] = dst[i];
+                    observer.set(arr, i, -1);
+                }
+            }
         }
-        int maxDigit = 0;
-        while (max != 0) {
-            max /= 10;
-            maxDigit++;
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, n);
         }
-        int mod = 10;
-        int div = 1;
-        ArrayList<ArrayList<Integer>> bucketList = new ArrayList<ArrayList<Integer>>();
-        for (int i = 0; i < 10; i++) {
-            bucketList.add(new ArrayList<>());
+    }
+
+    // キーの shift ビット目からの桁
+    private static int digit(int value, int keyMask, int shift) {
+        return ((value ^ keyMask) >>> shift) & (RADIX - 1);
+    }
+
+    /**
+     * 区間 [from, to) の各パスの桁の出現数を数える
+     * @return パスごとに RADIX 個ずつ並べた出現数
+     */
+    private static int[] histogram(int[] arr, int from, int to, int keyMask) {
+        int[] counts = new int[PASSES * RADIX];
+        for (int i = from; i < to; i++) {
+            int key = arr[i] ^ keyMask;
+            counts[key & (RADIX - 1)]++;
+            counts[RADIX + ((key >>> 8) & (RADIX - 1))]++;
+            counts[2 * RADIX + ((key >>> 16) & (RADIX - 1))]++;
+            counts[3 * RADIX + (key >>> 24)]++;
         }
-        for (int i = 0; i < maxDigit; i++) {
-            for (int j = 0; j < arr.length; j++) {
-                int num = (arr[j] % mod) / div;
-                bucketList.get(num).add(arr[j]);
+        return counts;
+    }
+
+    /**
+     * 桁の出現数を区間ごとに並列に数え、足し合わせるタスク
+     */
+    private static class HistogramTask extends RecursiveTask<int[]> {
+        private final int[] arr;
+        private final int from;
+        private final int to;
+        private final int keyMask;
+
+        HistogramTask(int[] arr, int from, int to, int keyMask) {
+            this.arr = arr;
+            this.from = from;
+            this.to = to;
+            this.keyMask = keyMask;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= PARALLEL_HISTOGRAM_THRESHOLD) {
+                return histogram(arr, from, to, keyMask);
             }
-            int index = 0;
-            for (int j = 0; j < bucketList.size(); j++) {
-                ArrayList<Integer> bucket = bucketList.get(j);
-                for (Integer val : bucket) {
-                    arr[index++] = val;
-                }
-                bucket.clear();
+            int mid = (from + to) >>> 1;
+            HistogramTask left = new HistogramTask(arr, from, mid, keyMask);
+            left.fork();
+            int[] counts = new HistogramTask(arr, mid, to, keyMask).compute();
+            int[] leftCounts = left.join();
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += leftCounts[i];
             }
-            mod *= 10;
-            div *= 10;
+            return counts;
         }
     }
 }
@@ -0,0 +1,141 @@
+package com.se04project.morimizu.sort;
+
+/**
+ * int のキーと、キーと同じ位置に並んだ値（ペイロード）の配列を、キーの昇順に一緒に並べ替える
+ * オブジェクトを作らずに、行 ID などを持つレコードをキーでソートするために使う。
+ * RadixSort と同じ8ビットずつの LSD 基数ソートで、同じキーのレコードは元の順序を保つ（安定ソート）。
+ */
+public class RecordSort {
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int PASSES = Integer.SIZE / RADIX_BITS;
+
+    /**
+     * キーの昇順に、キーと int のペイロードを並べ替える
+     * @param keys キーの配列
+     * @param payload ペイロードの配列（keys と同じ長さ）
+     */
+    public static void sort(int[] keys, int[] payload) {
+        checkLength(keys.length, payload.length);
+        int n = keys.length;
+        if (n < 2) {
+            return;
+        }
+        int[] counts = histogram(keys);
+
+        int[] srcKeys = keys;
+        int[] srcPayload = payload;
+        int[] dstKeys = new int[n];
+        int[] dstPayload = new int[n];
+        for (int pass = 0; pass < PASSES; pass++) {
+            int shift = pass * RADIX_BITS;
+            int offset = pass * RADIX;
+            if (!prefixSum(counts, offset, digit(srcKeys[0], shift), n)) {
+                continue;
+            }
+            for (int i = 0; i < n; i++) {
+                int position = counts[offset + digit(srcKeys[i], shift)]++;
+                dstKeys[position] = srcKeys[i];
+                dstPayload[position] = srcPayload[i];
+            }
+
+            int[] temp = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = temp;
+            temp = srcPayload;
+            srcPayload = dstPayload;
+            dstPayload = temp;
+        }
+        if (srcKeys != keys) {
+            System.arraycopy(srcKeys, 0, keys, 0, n);
+            System.arraycopy(srcPayload, 0, payload, 0, n);
+        }
+    }
+
+    /**
+     * キーの昇順に、キーと long のペイロードを並べ替える
+     * @param keys キーの配列
+     * @param payload ペイロードの配列（keys と同じ長さ）
+     */
+    public static void sort(int[] keys, long[] payload) {
+        checkLength(keys.length, payload.length);
+        int n = keys.length;
+        if (n < 2) {
+            return;
+        }
+        int[] counts = histogram(keys);
+
+        int[] srcKeys = keys;
+        long[] srcPayload = payload;
+        int[] dstKeys = new int[n];
+        long[] dstPayload = new long[n];
+        for (int pass = 0; pass < PASSES; pass++) {
+            int shift = pass * RADIX_BITS;
+            int offset = pass * RADIX;
+            if (!prefixSum(counts, offset, digit(srcKeys[0], shift), n)) {
+                continue;
+            }
+            for (int i = 0; i < n; i++) {
+                int position = counts[offset + digit(srcKeys[i], shift)]++;
+                dstKeys[position] = srcKeys[i];
+                dstPayload[position] = srcPayload[i];
+            }
+
+            int[] tempKeys = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = tempKeys;
+            long[] tempPayload = srcPayload;
+            srcPayload = dstPayload;
+            dstPayload = tempPayload;
+        }
+        if (srcKeys != keys) {
+            System.arraycopy(srcKeys, 0, keys, 0, n);
+            System.arraycopy(srcPayload, 0, payload, 0, n);
+        }
+    }
+
+    private static void checkLength(int keyLength, int payloadLength) {
+        if (keyLength != payloadLength) {
+            throw new IllegalArgumentException(
+                    "キーとペイロードの長さが一致しません: " + keyLength + " / " + payloadLength);
+        }
+    }
+
+    // 符号ビットを反転したキーの shift ビット目からの桁
+    private static int digit(int key, int shift) {
+        return ((key ^ Integer.MIN_VALUE) >>> shift) & (RADIX - 1);
+    }
+
+    /**
+     * 各パスの桁の出現数を数える
+     * @return パスごとに RADIX 個ずつ並べた出現数
+     */
+    private static int[] histogram(int[] keys) {
+        int[] counts = new int[PASSES * RADIX];
+        for (int key : keys) {
+            for (int pass = 0; pass < PASSES; pass++) {
+                counts[pass * RADIX + digit(key, pass * RADIX_BITS)]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * パスの出現数を累積和（各桁の書き込み開始位置）に置き換える
+     * @param firstDigit 先頭の要素の桁
+     * @return 分配が必要な場合は true（すべての要素が同じ桁の場合は何もせず false）
+     */
+    private static boolean prefixSum(int[] counts, int offset, int firstDigit, int n) {
+        if (counts[offset + firstDigit] == n) {
+            return false;
+        }
+        int sum = 0;
+        for (int d = 0; d < RADIX; d++) {
+            int count = counts[offset + d];
+            counts[offset + d] = sum;
+            sum += count;
+        }
+        return true;
+    }
+}
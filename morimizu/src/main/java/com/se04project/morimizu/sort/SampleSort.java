@@ -0,0 +1,189 @@
+package com.se04project.morimizu.sort;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * 並列サンプルソートの実装
+ * <ol>
+ * <li>多めに取り出した標本をソートし、バケットの境界となる値（スプリッタ）を重複なく選ぶ</li>
+ * <li>配列をブロックに分け、各ブロックで要素の振り分け先とバケットごとの要素数を並列に求める</li>
+ * <li>要素数の累積和から各ブロック・各バケットの書き込み位置を決め、並列に作業用の配列へ分配する</li>
+ * <li>各バケットを元の配列に書き戻し、クイックソートで並列にソートする</li>
+ * </ol>
+ * スプリッタと等しい値はスプリッタごとの専用のバケットに入れる。このバケットはすべて同じ値なのでソートしない。
+ * 重複の多い入力でも同じ値が1つの範囲のバケットに集まらず、1スレッドに処理が偏らない。
+ * 作業用の配列は要素数分の int 配列とバケット番号用の byte 配列の2つだけを確保する。
+ */
+public class SampleSort {
+
+    // これより小さい配列は並列化せずクイックソートで整列する
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 15;
+
+    // スプリッタ1つあたりに取り出す標本の数
+    private static final int OVERSAMPLING = 32;
+
+    // 1スレッドあたりの範囲のバケット数とブロック数
+    private static final int BUCKETS_PER_THREAD = 4;
+    private static final int BLOCKS_PER_THREAD = 4;
+
+    // バケット番号を byte に収めるための上限（範囲のバケットとスプリッタごとの等値のバケットの合計）
+    private static final int MAX_BUCKETS = 256;
+
+    /**
+     * 共通の ForkJoinPool を使い、サンプルソートで配列を並列に昇順ソートする
+     * @param arr ソート対象の配列
+     */
+    public static void parallelSort(int[] arr) {
+        parallelSort(arr, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 指定した ForkJoinPool を使い、サンプルソートで配列を並列に昇順ソートする
+     * @param arr ソート対象の配列
+     * @param pool 使用するスレッドプール
+     */
+    public static void parallelSort(int[] arr, ForkJoinPool pool) {
+        if (arr == null) {
+            return;
+        }
+        int n = arr.length;
+        if (n < SEQUENTIAL_THRESHOLD) {
+            QuickSort.sort(arr);
+            return;
+        }
+        int parallelism = pool.getParallelism();
+        int rangeBuckets = Math.min(MAX_BUCKETS / 2, Math.max(2, parallelism * BUCKETS_PER_THREAD));
+        int blockCount = parallelism * BLOCKS_PER_THREAD;
+        int blockSize = (n + blockCount - 1) / blockCount;
+        blockCount = (n + blockSize - 1) / blockSize;
+
+        int[] splitters = chooseSplitters(arr, rangeBuckets);
+        int bucketCount = 2 * splitters.length + 1;
+
+        // 各ブロックで振り分け先のバケットを求め、バケットごとの要素数を数える
+        byte[] bucketOf = new byte[n];
+        int[][] counts = new int[blockCount][bucketCount];
+        runAll(pool, blockCount, block -> {
+            int[] blockCounts = counts[block];
+            int end = Math.min(n, (block + 1) * blockSize);
+            for (int i = block * blockSize; i < end; i++) {
+                int bucket = bucketIndex(splitters, arr[i]);
+                bucketOf[i] = (byte) bucket;
+                blockCounts[bucket]++;
+            }
+        });
+
+        // バケット順・ブロック順の累積和を各ブロックの書き込み開始位置にする
+        int[] bucketStarts = new int[bucketCount + 1];
+        int sum = 0;
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            bucketStarts[bucket] = sum;
+            for (int block = 0; block < blockCount; block++) {
+                int count = counts[block][bucket];
+                counts[block][bucket] = sum;
+                sum += count;
+            }
+        }
+        bucketStarts[bucketCount] = n;
+
+        // 各ブロックの要素を作業用の配列へ分配する
+        int[] buffer = new int[n];
+        runAll(pool, blockCount, block -> {
+            int[] offsets = counts[block];
+            int end = Math.min(n, (block + 1) * blockSize);
+            for (int i = block * blockSize; i < end; i++) {
+                buffer[offsets[bucketOf[i] & 0xFF]++] = arr[i];
+            }
+        });
+
+        // 各バケットを元の配列に書き戻してソートする（奇数番目はスプリッタと等しい値だけなのでソート済み）
+        runAll(pool, bucketCount, bucket -> {
+            int from = bucketStarts[bucket];
+            int to = bucketStarts[bucket + 1];
+            System.arraycopy(buffer, from, arr, from, to - from);
+            if (bucket % 2 == 0) {
+                QuickSort.sort(arr, from, to, SortObserver.NONE);
+            }
+        });
+    }
+
+    /**
+     * 等間隔に取り出した標本をソートし、最大 rangeBuckets - 1 個の重複のないスプリッタを昇順に選ぶ
+     */
+    static int[] chooseSplitters(int[] arr, int rangeBuckets) {
+        int n = arr.length;
+        int sampleSize = rangeBuckets * OVERSAMPLING;
+        int[] sample = new int[sampleSize];
+        for (int i = 0; i < sampleSize; i++) {
+            sample[i] = arr[(int) ((long) i * n / sampleSize)];
+        }
+        QuickSort.sort(sample);
+        int[] splitters = new int[rangeBuckets - 1];
+        int count = 0;
+        for (int i = 0; i < splitters.length; i++) {
+            int splitter = sample[(i + 1) * OVERSAMPLING];
+            if (count == 0 || splitters[count - 1] != splitter) {
+                splitters[count++] = splitter;
+            }
+        }
+        return Arrays.copyOf(splitters, count);
+    }
+
+    /**
+     * 振り分け先のバケット番号を二分探索で求める
+     * バケット 2k は splitters[k - 1] より大きく splitters[k] より小さい値、
+     * バケット 2k + 1 は splitters[k] と等しい値を受け持つ
+     */
+    static int bucketIndex(int[] splitters, int value) {
+        int lo = 0;
+        int hi = splitters.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (splitters[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        // lo は value 以下のスプリッタの数
+        if (lo > 0 && splitters[lo - 1] == value) {
+            return 2 * lo - 1;
+        }
+        return 2 * lo;
+    }
+
+    /**
+     * 0 から count - 1 までの各番号について body を並列に実行し、すべて終わるまで待つ
+     */
+    private static void runAll(ForkJoinPool pool, int count, IntConsumer body) {
+        pool.invoke(new RangeTask(0, count, body));
+    }
+
+    /**
+     * 番号の区間 [lo, hi) を分割しながら並列に処理するタスク
+     */
+    private static class RangeTask extends RecursiveAction {
+        private final int lo;
+        private final int hi;
+        private final IntConsumer body;
+
+        RangeTask(int lo, int hi, IntConsumer body) {
+            this.lo = lo;
+            this.hi = hi;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                body.accept(lo);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new RangeTask(lo, mid, body), new RangeTask(mid, hi, body));
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.se04project.morimizu.sort;
+
+import java.util.Arrays;
+
+/**
+ * 配列全体をソートせずに、k 番目の値・小さい（大きい）方から k 個の値・パーセンタイルを求める
+ * <ul>
+ * <li>k 番目の値はイントロセレクト（3点の中央値をピボットとするクイックセレクト）で求める。
+ * 分割の回数が 2 log n を超えた場合は中央値の中央値をピボットにして、最悪でも O(n) で終える</li>
+ * <li>小さい方から k 個の値は大きさ k のヒープで O(n log k) で求める</li>
+ * <li>複数のパーセンタイルは1回の分割を共有しながら同時に求める</li>
+ * </ul>
+ */
+public class Selection {
+
+    // これ以下の区間は挿入ソートで整列する
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /**
+     * 配列の k 番目（0始まり）に小さい値を求める
+     * 配列は arr[k] がその値となり、それより前は arr[k] 以下、後ろは arr[k] 以上となるよう並べ替えられる。
+     * @param arr 対象の配列（並べ替えられる）
+     * @param k 求める順位（0 以上 arr.length 未満）
+     * @return k 番目に小さい値
+     */
+    public static int select(int[] arr, int k) {
+        if (k < 0 || k >= arr.length) {
+            throw new IllegalArgumentException("順位は0から" + (arr.length - 1) + "の間で指定してください: " + k);
+        }
+        multiSelect(arr, 0, arr.length - 1, new int[] {k}, 0, 0, depthLimit(arr.length));
+        return arr[k];
+    }
+
+    /**
+     * 小さい方から k 個の値を昇順で返す
+     * @param values 対象の配列（変更されない）
+     * @param k 求める個数（0 以上。要素数より多い場合は全要素）
+     * @return 小さい方から k 個の値（昇順）
+     */
+    public static int[] smallest(int[] values, int k) {
+        return topK(values, k, false);
+    }
+
+    /**
+     * 大きい方から k 個の値を降順で返す
+     * @param values 対象の配列（変更されない）
+     * @param k 求める個数（0 以上。要素数より多い場合は全要素）
+     * @return 大きい方から k 個の値（降順）
+     */
+    public static int[] largest(int[] values, int k) {
+        return topK(values, k, true);
+    }
+
+    /**
+     * パーセンタイル（最近順位法）を求める
+     * p パーセンタイルは、昇順に並べたときの ceil(p / 100 * n) 番目（1始まり。最小は1番目）の値とする。
+     * 配列は select と同様に、求めた各順位の前後で大小関係が揃うよう並べ替えられる。
+     * @param arr 対象の配列（並べ替えられる。空でないこと）
+     * @param percentiles 求めるパーセンタイル（0〜100）
+     * @return 各パーセンタイルの値（percentiles と同じ順）
+     */
+    public static int[] percentiles(int[] arr, double... percentiles) {
+        int n = arr.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("空の配列のパーセンタイルは求められません");
+        }
+        int[] ranks = new int[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            double p = percentiles[i];
+            if (!(p >= 0 && p <= 100)) {
+                throw new IllegalArgumentException("パーセンタイルは0から100の間で指定してください: " + p);
+            }
+            ranks[i] = Math.max(0, (int) Math.ceil(p / 100 * n) - 1);
+        }
+
+        // 順位を昇順に並べ、重複を除いてから同時に求める
+        int[] sortedRanks = ranks.clone();
+        Arrays.sort(sortedRanks);
+        int unique = 0;
+        for (int i = 0; i < sortedRanks.length; i++) {
+            if (unique == 0 || sortedRanks[unique - 1] != sortedRanks[i]) {
+                sortedRanks[unique++] = sortedRanks[i];
+            }
+        }
+        if (unique > 0) {
+            multiSelect(arr, 0, n - 1, sortedRanks, 0, unique - 1, depthLimit(n));
+        }
+
+        int[] result = new int[ranks.length];
+        for (int i = 0; i < ranks.length; i++) {
+            result[i] = arr[ranks[i]];
+        }
+        return result;
+    }
+
+    private static int depthLimit(int n) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(n));
+    }
+
+    /**
+     * 区間 [lo, hi] の中で、ranks[rlo..rhi]（昇順）の各順位の値を確定させる
+     * 分割後、ピボットと等しい範囲に入った順位はその時点で確定し、残りの順位を左右の区間に分けて処理する。
+     */
+    private static void multiSelect(int[] arr, int lo, int hi, int[] ranks, int rlo, int rhi, int depthLimit) {
+        while (rlo <= rhi) {
+            if (hi - lo < INSERTION_SORT_THRESHOLD) {
+                insertionSort(arr, lo, hi);
+                return;
+            }
+            int pivot = depthLimit-- > 0 ? medianOfThree(arr, lo, lo + (hi - lo) / 2, hi) : medianOfMedians(arr, lo, hi);
+
+            // 3分割: [lo, lt) < pivot, [lt, gt] == pivot, (gt, hi] > pivot
+            int lt = lo;
+            int gt = hi;
+            int i = lo;
+            while (i <= gt) {
+                if (arr[i] < pivot) {
+                    swap(arr, lt++, i++);
+                } else if (arr[i] > pivot) {
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            // lt より前の順位は左の区間、gt より後の順位は右の区間に残る
+            int left = rlo;
+            while (left <= rhi && ranks[left] < lt) {
+                left++;
+            }
+            int right = left;
+            while (right <= rhi && ranks[right] <= gt) {
+                right++;
+            }
+            multiSelect(arr, lo, lt - 1, ranks, rlo, left - 1, depthLimit);
+            lo = gt + 1;
+            rlo = right;
+        }
+    }
+
+    /**
+     * 区間 [lo, hi] の5個ずつのグループの中央値を区間の先頭に集め、その中央値を返す
+     * 返す値より小さい要素と大きい要素はそれぞれ区間の3割以上あるため、分割が偏らない。
+     */
+    private static int medianOfMedians(int[] arr, int lo, int hi) {
+        int medians = 0;
+        for (int group = lo; group <= hi; group += 5) {
+            int end = Math.min(group + 4, hi);
+            insertionSort(arr, group, end);
+            swap(arr, lo + medians++, group + (end - group) / 2);
+        }
+        int mid = lo + (medians - 1) / 2;
+        multiSelect(arr, lo, lo + medians - 1, new int[] {mid}, 0, 0, depthLimit(medians));
+        return arr[mid];
+    }
+
+    private static int medianOfThree(int[] arr, int a, int b, int c) {
+        int x = arr[a];
+        int y = arr[b];
+        int z = arr[c];
+        if (x < y) {
+            return y < z ? y : Math.max(x, z);
+        }
+        return x < z ? x : Math.max(y, z);
+    }
+
+    /**
+     * 大きさ k のヒープを使い、小さい方（largest の場合は大きい方）から k 個の値を求める
+     * ヒープの根には、それまでに残した k 個のうち最も外れやすい値（最大または最小）を置く。
+     */
+    private static int[] topK(int[] values, int k, boolean largest) {
+        if (k < 0) {
+            throw new IllegalArgumentException("個数は0以上で指定してください: " + k);
+        }
+        k = Math.min(k, values.length);
+        if (k == 0) {
+            return new int[0];
+        }
+        // 大きい方を求める場合は ~x で大小を反転し、小さい方を求める処理を共有する
+        int[] heap = new int[k];
+        for (int i = 0; i < k; i++) {
+            heap[i] = largest ? ~values[i] : values[i];
+        }
+        for (int i = k / 2 - 1; i >= 0; i--) {
+            siftDown(heap, i, k);
+        }
+        for (int i = k; i < values.length; i++) {
+            int value = largest ? ~values[i] : values[i];
+            if (value < heap[0]) {
+                heap[0] = value;
+                siftDown(heap, 0, k);
+            }
+        }
+
+        // 最大ヒープから根を順に取り出して後ろから並べると昇順になる
+        for (int size = k - 1; size > 0; size--) {
+            swap(heap, 0, size);
+            siftDown(heap, 0, size);
+        }
+        if (largest) {
+            for (int i = 0; i < k; i++) {
+                heap[i] = ~heap[i];
+            }
+        }
+        return heap;
+    }
+
+    // 最大ヒープで i 番目の要素を下へ移動させる
+    private static void siftDown(int[] heap, int i, int size) {
+        int value = heap[i];
+        int child;
+        while ((child = 2 * i + 1) < size) {
+            if (child + 1 < size && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (heap[child] <= value) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = value;
+    }
+
+    private static void insertionSort(int[] arr, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            int val = arr[i];
+            int j = i - 1;
+            while (j >= lo && arr[j] > val) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = val;
+        }
+    }
+
+    private static void swap(int[] arr, int i, int j) {
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+}
@@ -10,6 +10,15 @@ public class SelectionSort {
      * @param arr ソート対象の配列
      */
     public static void sort(int[] arr) {
+        sort(arr, SortObserver.NONE);
+    }
+
+    /**
+     * 選択ソートで配列を昇順にソートし、操作をオブザーバーに通知する
+     * @param arr ソート対象の配列
+     * @param observer 操作の通知先
+     */
+    public static void sort(int[] arr, SortObserver observer) {
         if (arr == null || arr.length == 0) {
             return;
         }
@@ -18,6 +27,7 @@ public class SelectionSort {
         for (int i = 0; i < n - 1; i++) {
             int minIndex = i;
             for (int j = i + 1; j < n; j++) {
+                observer.compare(arr, j, minIndex);
                 if (arr[j] < arr[minIndex]) {
                     minIndex = j;
                 }
@@ -28,6 +38,7 @@ public class SelectionSort {
                 int temp = arr[i];
                 arr[i] = arr[minIndex];
                 arr[minIndex] = temp;
+                observer.swap(arr, i, minIndex);
             }
         }
     }
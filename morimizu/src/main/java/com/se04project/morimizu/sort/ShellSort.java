@@ -10,14 +10,41 @@ public class ShellSort {
      * @param arr ソート対象の配列
      */
     public static void sort(int[] arr) {
+        sort(arr, SortObserver.NONE);
+    }
+
+    /**
+     * シェルソートで配列を昇順にソートし、操作をオブザーバーに通知する
+     * @param arr ソート対象の配列
+     * @param observer 操作の通知先
+     */
+    public static void sort(int[] arr, SortObserver observer) {
+        sort(arr, GapSequence.SHELL, observer);
+    }
+
+    /**
+     * 指定したギャップ列のシェルソートで配列を昇順にソートする
+     * @param arr ソート対象の配列
+     * @param gapSequence ギャップ列
+     */
+    public static void sort(int[] arr, GapSequence gapSequence) {
+        sort(arr, gapSequence, SortObserver.NONE);
+    }
+
+    /**
+     * 指定したギャップ列のシェルソートで配列を昇順にソートし、操作をオブザーバーに通知する
+     * @param arr ソート対象の配列
+     * @param gapSequence ギャップ列
+     * @param observer 操作の通知先
+     */
+    public static void sort(int[] arr, GapSequence gapSequence, SortObserver observer) {
         if (arr == null || arr.length == 0) {
             return;
         }
         
         int n = arr.length;
         
-        // ギャップの初期値を設定（nの1/3）
-        for (int gap = n / 2; gap > 0; gap /= 2) {
+        for (int gap : gapSequence.gaps(n)) {
             // ギャップシェルソート
             for (int i = gap; i < n; i++) {
                 int temp = arr[i];
@@ -25,9 +52,11 @@ public class ShellSort {
                 
                 for (j = i; j >= gap && arr[j - gap] > temp; j -= gap) {
                     arr[j] = arr[j - gap];
+                    observer.set(arr, j, j - gap);
                 }
                 
                 arr[j] = temp;
+                observer.set(arr, j, -1);
             }
         }
     }
@@ -0,0 +1,37 @@
+package com.se04project.morimizu.sort;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * ソートアルゴリズムの実行時間を測るユーティリティ
+ */
+public class SortBenchmark {
+
+    /**
+     * 入力のコピーをソートする時間を runs 回測り、その中央値を返す
+     * 計測の前に warmups 回同じ処理を実行し、JIT コンパイルを済ませておく
+     * @param input ソートする配列（変更されない）
+     * @param sorter 配列をソートする処理
+     * @param warmups 計測前に実行する回数
+     * @param runs 計測する回数（1以上）
+     * @return 実行時間の中央値（ナノ秒）
+     */
+    public static long medianNanos(int[] input, Consumer<int[]> sorter, int warmups, int runs) {
+        if (runs < 1) {
+            throw new IllegalArgumentException("計測回数は1以上で指定してください: " + runs);
+        }
+        for (int i = 0; i < warmups; i++) {
+            sorter.accept(input.clone());
+        }
+        long[] times = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            int[] arr = input.clone();
+            long start = System.nanoTime();
+            sorter.accept(arr);
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return times[runs / 2];
+    }
+}
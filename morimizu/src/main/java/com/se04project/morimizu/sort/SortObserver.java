@@ -0,0 +1,43 @@
+package com.se04project.morimizu.sort;
+
+/**
+ * ソート中の操作を受け取るオブザーバー
+ * 各ソートアルゴリズムは配列を変更するたびに swap または set を通知する。
+ * NONE を渡した場合は空のメソッド呼び出しが JIT によりインライン化されて消えるため、
+ * 通知のないソートと同じ速度で動作する。
+ */
+public interface SortObserver {
+
+    /**
+     * 何もしないオブザーバー
+     */
+    SortObserver NONE = new SortObserver() {
+    };
+
+    /**
+     * 配列上の2要素を比較した（一時変数に退避した値との比較は通知しない）
+     * @param arr ソート中の配列
+     * @param i 比較した位置
+     * @param j 比較した位置
+     */
+    default void compare(int[] arr, int i, int j) {
+    }
+
+    /**
+     * 2要素を交換した
+     * @param arr 交換後の配列
+     * @param i 交換した位置
+     * @param j 交換した位置
+     */
+    default void swap(int[] arr, int i, int j) {
+    }
+
+    /**
+     * 1要素に値を書き込んだ
+     * @param arr 書き込み後の配列
+     * @param index 書き込んだ位置
+     * @param from 値の移動元の位置（移動元がない場合は -1）
+     */
+    default void set(int[] arr, int index, int from) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.se04project.morimizu.sort;
+
+import java.util.function.Consumer;
+
+/**
+ * ソート順
+ * 降順は各値をビット反転（~x）したキーを昇順にソートし、最後にもう一度反転して元の値に戻す。
+ * ~x は大小関係を逆転させる全単射でオーバーフローしないため、各アルゴリズムは昇順だけを実装すればよく、
+ * 比較のたびに順序を判定する必要もない。
+ */
+public enum SortOrder {
+    ASCENDING("asc"),
+    DESCENDING("desc");
+
+    private final String name;
+
+    SortOrder(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return リクエストで使う名前（"asc" または "desc"）
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 配列の値とソート用のキーを相互に変換する（降順の場合は各値をビット反転し、昇順の場合は何もしない）
+     * 2回適用すると元の値に戻る。
+     * @param arr 変換する配列
+     */
+    public void toKeys(int[] arr) {
+        if (this == DESCENDING) {
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = ~arr[i];
+            }
+        }
+    }
+
+    /**
+     * 昇順のソートを使って、配列をこの順序にソートする
+     * @param arr ソート対象の配列
+     * @param ascendingSort 配列を昇順にソートする処理
+     */
+    public void sort(int[] arr, Consumer<int[]> ascendingSort) {
+        toKeys(arr);
+        ascendingSort.accept(arr);
+        toKeys(arr);
+    }
+
+    /**
+     * 名前からソート順を返す
+     * @param name "asc" または "desc"（null または空の場合は ASCENDING）
+     * @throws IllegalArgumentException 該当するソート順がない場合
+     */
+    public static SortOrder fromName(String name) {
+        if (name == null || name.isEmpty()) {
+            return ASCENDING;
+        }
+        for (SortOrder order : values()) {
+            if (order.name.equals(name)) {
+                return order;
+            }
+        }
+        throw new IllegalArgumentException("不明なソート順です: " + name);
+    }
+}
@@ -0,0 +1,110 @@
+package com.se04project.morimizu.sort;
+
+import java.util.Arrays;
+
+/**
+ * ソート前の配列の特徴
+ * 要素数・連の数（整列の度合い）・値の範囲を1回の走査で求め、重複の割合は一部の要素から推定する。
+ */
+public class SortProfile {
+
+    // 重複の割合を推定するために取り出す要素数
+    private static final int SAMPLE_SIZE = 256;
+
+    private final int size;
+    private final int runCount;
+    private final int min;
+    private final int max;
+    private final double duplicateRatio;
+
+    private SortProfile(int size, int runCount, int min, int max, double duplicateRatio) {
+        this.size = size;
+        this.runCount = runCount;
+        this.min = min;
+        this.max = max;
+        this.duplicateRatio = duplicateRatio;
+    }
+
+    /**
+     * 配列の特徴を調べる
+     * @param arr 調べる配列（変更されない）
+     * @return 配列の特徴
+     */
+    public static SortProfile of(int[] arr) {
+        int n = arr.length;
+        if (n == 0) {
+            return new SortProfile(0, 0, 0, 0, 0);
+        }
+
+        // 昇順（等しい値を含む）または狭義の降順が続く区間を1つの連として数える
+        int runCount = 1;
+        int min = arr[0];
+        int max = arr[0];
+        int direction = 0;
+        for (int i = 1; i < n; i++) {
+            int value = arr[i];
+            if (value < min) {
+                min = value;
+            } else if (value > max) {
+                max = value;
+            }
+            int step = value < arr[i - 1] ? -1 : 1;
+            if (direction == 0) {
+                direction = step;
+            } else if (step != direction) {
+                runCount++;
+                direction = 0;
+            }
+        }
+
+        // 等間隔に取り出した要素のうち、他の要素と値が重なるものの割合
+        int sampleSize = Math.min(n, SAMPLE_SIZE);
+        int[] sample = new int[sampleSize];
+        for (int i = 0; i < sampleSize; i++) {
+            sample[i] = arr[(int) ((long) i * n / sampleSize)];
+        }
+        Arrays.sort(sample);
+        int distinct = 1;
+        for (int i = 1; i < sampleSize; i++) {
+            if (sample[i] != sample[i - 1]) {
+                distinct++;
+            }
+        }
+        double duplicateRatio = 1 - (double) distinct / sampleSize;
+
+        return new SortProfile(n, runCount, min, max, duplicateRatio);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return 昇順または降順が続く区間の数（ソート済み・逆順の配列では1）
+     */
+    public int getRunCount() {
+        return runCount;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * @return 値の範囲（max - min + 1）
+     */
+    public long getRange() {
+        return (long) max - min + 1;
+    }
+
+    /**
+     * @return 重複している要素の割合の推定値（0〜1）
+     */
+    public double getDuplicateRatio() {
+        return duplicateRatio;
+    }
+}
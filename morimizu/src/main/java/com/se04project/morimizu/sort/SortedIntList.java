@@ -0,0 +1,527 @@
+package com.se04project.morimizu.sort;
+
+import java.util.Objects;
+
+/**
+ * 常に昇順に保たれる int の列（同じ値を複数持てる）
+ * 各ノードが子の部分木の要素数を持つ B+ 木で、挿入・削除・順位の計算・k 番目の取得を O(log n) で行う。
+ * 値は葉ごとに int 配列のブロックにまとめて持ち、葉どうしを連結リストでつなぐため、範囲の読み出しは配列のコピーになる。
+ * スレッドセーフではない。
+ */
+public class SortedIntList {
+
+    // 葉が持てる要素数と、内部ノードが持てる子の数
+    private static final int LEAF_CAPACITY = 64;
+    private static final int BRANCHING = 32;
+
+    // 一括構築では、直後の挿入ですぐ分割されないよう 3/4 まで詰める
+    private static final int BULK_LEAF_SIZE = LEAF_CAPACITY * 3 / 4;
+    private static final int BULK_BRANCHING = BRANCHING * 3 / 4;
+
+    private Node root;
+
+    public SortedIntList() {
+        this.root = new Leaf();
+    }
+
+    /**
+     * 配列の値をすべて持つ列を作る（配列は変更しない）
+     * ソートしてから葉を左から順に詰めるため、O(n log n) のソート1回と O(n) の構築で済む。
+     * @param values 初期値
+     */
+    public SortedIntList(int[] values) {
+        int[] sorted = values.clone();
+        AdaptiveSort.sort(sorted);
+        this.root = build(sorted);
+    }
+
+    /**
+     * @return 要素数
+     */
+    public int size() {
+        return root.size();
+    }
+
+    /**
+     * 値を1つ挿入する
+     * 同じ値がすでにある場合は、それらの後ろに入る。
+     * @param value 挿入する値
+     */
+    public void add(int value) {
+        Node split = root.insert(value);
+        if (split != null) {
+            Inner newRoot = new Inner();
+            newRoot.insertChild(0, root, 0);
+            newRoot.insertChild(1, split, split.lowerBound());
+            newRoot.total = root.size() + split.size();
+            root = newRoot;
+        }
+    }
+
+    /**
+     * 複数の値をまとめて挿入する
+     * 挿入する値が現在の要素数より多い場合は、1つずつ挿入せずに全体をマージして作り直す。
+     * @param values 挿入する値
+     */
+    public void addAll(int[] values) {
+        if (values.length <= size()) {
+            for (int value : values) {
+                add(value);
+            }
+            return;
+        }
+        int[] added = values.clone();
+        AdaptiveSort.sort(added);
+        int[] current = toArray(0, size());
+        int[] merged = new int[current.length + added.length];
+        int i = 0, j = 0, k = 0;
+        while (i < current.length && j < added.length) {
+            merged[k++] = current[i] <= added[j] ? current[i++] : added[j++];
+        }
+        System.arraycopy(current, i, merged, k, current.length - i);
+        System.arraycopy(added, j, merged, k + current.length - i, added.length - j);
+        root = build(merged);
+    }
+
+    /**
+     * 値を1つ削除する
+     * @param value 削除する値
+     * @return 値があって削除した場合は true
+     */
+    public boolean remove(int value) {
+        int index = rank(value);
+        if (index == size() || get(index) != value) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * 複数の値をそれぞれ1つずつ削除する
+     * @param values 削除する値
+     * @return 実際に削除した値の数
+     */
+    public int removeAll(int[] values) {
+        int removed = 0;
+        for (int value : values) {
+            if (remove(value)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * index 番目（0始まり）の値を削除する
+     * @return 削除した値
+     * @throws IndexOutOfBoundsException index が範囲外の場合
+     */
+    public int removeAt(int index) {
+        Objects.checkIndex(index, size());
+        int value = root.removeAt(index);
+        // 子が1つ以下になった根は取り除く
+        while (root instanceof Inner inner && inner.childCount <= 1) {
+            root = inner.childCount == 0 ? new Leaf() : inner.children[0];
+        }
+        return value;
+    }
+
+    /**
+     * @return index 番目（0始まり）に小さい値
+     * @throws IndexOutOfBoundsException index が範囲外の場合
+     */
+    public int get(int index) {
+        Objects.checkIndex(index, size());
+        Node node = root;
+        while (node instanceof Inner inner) {
+            int i = 0;
+            while (index >= inner.sizes[i]) {
+                index -= inner.sizes[i++];
+            }
+            node = inner.children[i];
+        }
+        return ((Leaf) node).values[index];
+    }
+
+    /**
+     * value より小さい要素の数（value を挿入した場合に入る位置のうち最も前の位置）を返す
+     */
+    public int rank(int value) {
+        return countBefore(value, true);
+    }
+
+    /**
+     * @return value と等しい要素の数
+     */
+    public int count(int value) {
+        return countBefore(value, false) - countBefore(value, true);
+    }
+
+    /**
+     * 順位が [from, to) の値を昇順に返す
+     * @throws IndexOutOfBoundsException 範囲が不正な場合
+     */
+    public int[] toArray(int from, int to) {
+        Objects.checkFromToIndex(from, to, size());
+        int[] result = new int[to - from];
+        if (result.length == 0) {
+            return result;
+        }
+        Node node = root;
+        int index = from;
+        while (node instanceof Inner inner) {
+            int i = 0;
+            while (index >= inner.sizes[i]) {
+                index -= inner.sizes[i++];
+            }
+            node = inner.children[i];
+        }
+        // 最初の葉の途中から、連結リストをたどって必要な数だけコピーする
+        Leaf leaf = (Leaf) node;
+        int copied = 0;
+        while (copied < result.length) {
+            int length = Math.min(leaf.count - index, result.length - copied);
+            System.arraycopy(leaf.values, index, result, copied, length);
+            copied += length;
+            leaf = leaf.next;
+            index = 0;
+        }
+        return result;
+    }
+
+    /**
+     * @param strict true の場合は value より小さい要素、false の場合は value 以下の要素を数える
+     */
+    private int countBefore(int value, boolean strict) {
+        int count = 0;
+        Node node = root;
+        while (node instanceof Inner inner) {
+            int i = inner.childFor(value, strict);
+            for (int c = 0; c < i; c++) {
+                count += inner.sizes[c];
+            }
+            node = inner.children[i];
+        }
+        Leaf leaf = (Leaf) node;
+        return count + leaf.search(value, strict);
+    }
+
+    /**
+     * ソート済みの配列から木を作る
+     */
+    private static Node build(int[] sorted) {
+        if (sorted.length == 0) {
+            return new Leaf();
+        }
+        // 葉の要素数がほぼ均等になるように分ける
+        int leafCount = (sorted.length + BULK_LEAF_SIZE - 1) / BULK_LEAF_SIZE;
+        Node[] level = new Node[leafCount];
+        Leaf previous = null;
+        for (int i = 0; i < leafCount; i++) {
+            int from = (int) ((long) sorted.length * i / leafCount);
+            int to = (int) ((long) sorted.length * (i + 1) / leafCount);
+            Leaf leaf = new Leaf();
+            System.arraycopy(sorted, from, leaf.values, 0, to - from);
+            leaf.count = to - from;
+            leaf.prev = previous;
+            if (previous != null) {
+                previous.next = leaf;
+            }
+            previous = leaf;
+            level[i] = leaf;
+        }
+
+        // 1つのノードになるまで、下の段をまとめた内部ノードの段を重ねる
+        while (level.length > 1) {
+            int parentCount = (level.length + BULK_BRANCHING - 1) / BULK_BRANCHING;
+            Node[] parents = new Node[parentCount];
+            for (int i = 0; i < parentCount; i++) {
+                int from = (int) ((long) level.length * i / parentCount);
+                int to = (int) ((long) level.length * (i + 1) / parentCount);
+                Inner inner = new Inner();
+                for (int c = from; c < to; c++) {
+                    inner.insertChild(c - from, level[c], level[c].lowerBound());
+                    inner.total += level[c].size();
+                }
+                parents[i] = inner;
+            }
+            level = parents;
+        }
+        return level[0];
+    }
+
+    /**
+     * 木のノード
+     */
+    private abstract static class Node {
+
+        /**
+         * @return 部分木の要素数
+         */
+        abstract int size();
+
+        /**
+         * @return 部分木の要素の下限（分割・構築の直後に親の区切りの値として使う）
+         */
+        abstract int lowerBound();
+
+        /**
+         * 値を挿入する
+         * @return 容量を超えて分割した場合は右半分の新しいノード、そうでなければ null
+         */
+        abstract Node insert(int value);
+
+        /**
+         * 部分木の中で index 番目の値を削除する
+         * @return 削除した値
+         */
+        abstract int removeAt(int index);
+
+        /**
+         * @return 要素（子）が少なく、隣のノードとの併合を試みる状態の場合は true
+         */
+        abstract boolean isUnderfull();
+
+        /**
+         * 右隣のノードの内容を後ろに移す
+         * @param right 右隣のノード
+         * @param separator 親が持つ right の区切りの値
+         * @return 容量に収まらず移さなかった場合は false
+         */
+        abstract boolean mergeFrom(Node right, int separator);
+
+        /**
+         * 空になって親から取り除かれる直前に呼ばれる
+         */
+        void detach() {
+        }
+    }
+
+    private static final class Leaf extends Node {
+        final int[] values = new int[LEAF_CAPACITY];
+        int count;
+        Leaf prev;
+        Leaf next;
+
+        @Override
+        int size() {
+            return count;
+        }
+
+        @Override
+        int lowerBound() {
+            return values[0];
+        }
+
+        /**
+         * @return value より小さい（strict が false の場合は value 以下の）要素の数
+         */
+        int search(int value, boolean strict) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < value || (!strict && values[mid] == value)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        @Override
+        Node insert(int value) {
+            int position = search(value, false);
+            if (count < LEAF_CAPACITY) {
+                insertAt(position, value);
+                return null;
+            }
+            // 後ろ半分を新しい葉に移し、連結リストにつなぐ
+            Leaf right = new Leaf();
+            int half = count / 2;
+            right.count = count - half;
+            System.arraycopy(values, half, right.values, 0, right.count);
+            count = half;
+            right.prev = this;
+            right.next = next;
+            if (next != null) {
+                next.prev = right;
+            }
+            next = right;
+            if (position <= half) {
+                insertAt(position, value);
+            } else {
+                right.insertAt(position - half, value);
+            }
+            return right;
+        }
+
+        private void insertAt(int position, int value) {
+            System.arraycopy(values, position, values, position + 1, count - position);
+            values[position] = value;
+            count++;
+        }
+
+        @Override
+        int removeAt(int index) {
+            int value = values[index];
+            System.arraycopy(values, index + 1, values, index, count - index - 1);
+            count--;
+            return value;
+        }
+
+        @Override
+        boolean isUnderfull() {
+            return count < LEAF_CAPACITY / 4;
+        }
+
+        @Override
+        boolean mergeFrom(Node right, int separator) {
+            Leaf leaf = (Leaf) right;
+            if (count + leaf.count > LEAF_CAPACITY) {
+                return false;
+            }
+            System.arraycopy(leaf.values, 0, values, count, leaf.count);
+            count += leaf.count;
+            leaf.detach();
+            return true;
+        }
+
+        @Override
+        void detach() {
+            if (prev != null) {
+                prev.next = next;
+            }
+            if (next != null) {
+                next.prev = prev;
+            }
+        }
+    }
+
+    private static final class Inner extends Node {
+        // 容量を1つ超えた状態で分割するため、配列は BRANCHING + 1 個分確保する
+        final Node[] children = new Node[BRANCHING + 1];
+        // keys[i] (i >= 1) は子 i の要素の下限で、子 i - 1 の要素の上限でもある（keys[0] はこのノードの下限）
+        final int[] keys = new int[BRANCHING + 1];
+        final int[] sizes = new int[BRANCHING + 1];
+        int childCount;
+        int total;
+
+        @Override
+        int size() {
+            return total;
+        }
+
+        @Override
+        int lowerBound() {
+            return keys[0];
+        }
+
+        /**
+         * 値をたどる子を二分探索で選ぶ
+         * @return keys[i] が value より小さい（strict が false の場合は value 以下の）最大の i（なければ 0）
+         */
+        int childFor(int value, boolean strict) {
+            int low = 1;
+            int high = childCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < value || (!strict && keys[mid] == value)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low - 1;
+        }
+
+        void insertChild(int i, Node child, int key) {
+            System.arraycopy(children, i, children, i + 1, childCount - i);
+            System.arraycopy(keys, i, keys, i + 1, childCount - i);
+            System.arraycopy(sizes, i, sizes, i + 1, childCount - i);
+            children[i] = child;
+            keys[i] = key;
+            sizes[i] = child.size();
+            childCount++;
+        }
+
+        private void removeChild(int i) {
+            System.arraycopy(children, i + 1, children, i, childCount - i - 1);
+            System.arraycopy(keys, i + 1, keys, i, childCount - i - 1);
+            System.arraycopy(sizes, i + 1, sizes, i, childCount - i - 1);
+            children[--childCount] = null;
+        }
+
+        @Override
+        Node insert(int value) {
+            int i = childFor(value, false);
+            Node split = children[i].insert(value);
+            total++;
+            if (split == null) {
+                sizes[i]++;
+                return null;
+            }
+            sizes[i] = children[i].size();
+            insertChild(i + 1, split, split.lowerBound());
+            if (childCount <= BRANCHING) {
+                return null;
+            }
+
+            // 後ろ半分の子を新しいノードに移す
+            Inner right = new Inner();
+            int half = childCount / 2;
+            for (int c = half; c < childCount; c++) {
+                right.insertChild(c - half, children[c], keys[c]);
+                right.total += sizes[c];
+                children[c] = null;
+            }
+            total -= right.total;
+            childCount = half;
+            return right;
+        }
+
+        @Override
+        int removeAt(int index) {
+            int i = 0;
+            while (index >= sizes[i]) {
+                index -= sizes[i++];
+            }
+            Node child = children[i];
+            int value = child.removeAt(index);
+            sizes[i]--;
+            total--;
+            if (sizes[i] == 0) {
+                child.detach();
+                removeChild(i);
+            } else if (child.isUnderfull() && childCount > 1) {
+                // 隣の子と合わせて1つのノードに収まる場合は併合する
+                int left = i > 0 ? i - 1 : i;
+                if (children[left].mergeFrom(children[left + 1], keys[left + 1])) {
+                    sizes[left] = children[left].size();
+                    removeChild(left + 1);
+                }
+            }
+            return value;
+        }
+
+        @Override
+        boolean isUnderfull() {
+            return childCount < BRANCHING / 4;
+        }
+
+        @Override
+        boolean mergeFrom(Node right, int separator) {
+            Inner inner = (Inner) right;
+            if (childCount + inner.childCount > BRANCHING) {
+                return false;
+            }
+            for (int c = 0; c < inner.childCount; c++) {
+                insertChild(childCount, inner.children[c], c == 0 ? separator : inner.keys[c]);
+            }
+            total += inner.total;
+            return true;
+        }
+    }
+}
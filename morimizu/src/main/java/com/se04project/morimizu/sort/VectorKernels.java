@@ -0,0 +1,222 @@
+package com.se04project.morimizu.sort;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API（jdk.incubator.vector）を使う処理
+ * このクラスは VectorSupport がモジュールの利用可否を確認した後にだけ読み込まれる。
+ */
+final class VectorKernels {
+
+    // ソーティングネットワークは8レーン（256ビット）のベクトル8本で64要素を扱う
+    private static final VectorSpecies<Integer> NETWORK_SPECIES = IntVector.SPECIES_256;
+    private static final VectorSpecies<Integer> SCAN_SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int LANES = 8;
+    static final int BLOCK_SIZE = LANES * LANES;
+
+    // レーンの並べ替え（反転と、距離4・2・1のレーンの入れ替え）と、各距離で大きい方を置くレーン
+    private static final VectorShuffle<Integer> REVERSE = VectorShuffle.fromOp(NETWORK_SPECIES, i -> LANES - 1 - i);
+    private static final VectorShuffle<Integer> SWAP_4 = VectorShuffle.fromOp(NETWORK_SPECIES, i -> i ^ 4);
+    private static final VectorShuffle<Integer> SWAP_2 = VectorShuffle.fromOp(NETWORK_SPECIES, i -> i ^ 2);
+    private static final VectorShuffle<Integer> SWAP_1 = VectorShuffle.fromOp(NETWORK_SPECIES, i -> i ^ 1);
+    private static final VectorMask<Integer> UPPER_4 = VectorMask.fromLong(NETWORK_SPECIES, 0xF0);
+    private static final VectorMask<Integer> UPPER_2 = VectorMask.fromLong(NETWORK_SPECIES, 0xCC);
+    private static final VectorMask<Integer> UPPER_1 = VectorMask.fromLong(NETWORK_SPECIES, 0xAA);
+
+    // 8要素に満たない行の埋め草（ソート後は末尾に集まる）
+    private static final IntVector PADDING = IntVector.broadcast(NETWORK_SPECIES, Integer.MAX_VALUE);
+
+    private VectorKernels() {
+    }
+
+    /**
+     * @return 256ビット以上のベクトルがハードウェアで扱える場合は true
+     */
+    static boolean isHardwareSupported() {
+        return SCAN_SPECIES.vectorBitSize() >= 256 && NETWORK_SPECIES.length() == LANES;
+    }
+
+    /**
+     * 区間 [from, to) の最小値と最大値を求める
+     */
+    static int[] minMax(int[] arr, int from, int to) {
+        IntVector min = IntVector.broadcast(SCAN_SPECIES, Integer.MAX_VALUE);
+        IntVector max = IntVector.broadcast(SCAN_SPECIES, Integer.MIN_VALUE);
+        int i = from;
+        for (int bound = from + SCAN_SPECIES.loopBound(to - from); i < bound; i += SCAN_SPECIES.length()) {
+            IntVector v = IntVector.fromArray(SCAN_SPECIES, arr, i);
+            min = min.min(v);
+            max = max.max(v);
+        }
+        int minValue = min.reduceLanes(VectorOperators.MIN);
+        int maxValue = max.reduceLanes(VectorOperators.MAX);
+        for (; i < to; i++) {
+            minValue = Math.min(minValue, arr[i]);
+            maxValue = Math.max(maxValue, arr[i]);
+        }
+        return new int[] { minValue, maxValue };
+    }
+
+    /**
+     * 64要素以下の区間 [from, to) をソートする
+     * <ol>
+     * <li>区間を8要素ずつ8本のベクトル（行）にマスク付きで直接読み込み（足りない部分は Integer.MAX_VALUE で埋める）、
+     * 行どうしの min/max による19個の比較器のソーティングネットワークで各レーン（列）をソートする</li>
+     * <li>列を集めて転置し、8要素のソート済みの連を8本作る</li>
+     * <li>バイトニックマージで 8+8、16+16、32+32 要素の連を順にマージする。
+     * 分岐を使わず、すべての比較をベクトルの min/max とレーンの並べ替えで行う</li>
+     * </ol>
+     */
+    static void sortBlock(int[] arr, int from, int to) {
+        int length = to - from;
+        IntVector v0 = loadRow(arr, from, length, 0);
+        IntVector v1 = loadRow(arr, from, length, 1);
+        IntVector v2 = loadRow(arr, from, length, 2);
+        IntVector v3 = loadRow(arr, from, length, 3);
+        IntVector v4 = loadRow(arr, from, length, 4);
+        IntVector v5 = loadRow(arr, from, length, 5);
+        IntVector v6 = loadRow(arr, from, length, 6);
+        IntVector v7 = loadRow(arr, from, length, 7);
+
+        // 8入力の最適なソーティングネットワーク（19個の比較器）
+        IntVector t;
+        t = v0.min(v2); v2 = v0.max(v2); v0 = t;
+        t = v1.min(v3); v3 = v1.max(v3); v1 = t;
+        t = v4.min(v6); v6 = v4.max(v6); v4 = t;
+        t = v5.min(v7); v7 = v5.max(v7); v5 = t;
+        t = v0.min(v4); v4 = v0.max(v4); v0 = t;
+        t = v1.min(v5); v5 = v1.max(v5); v1 = t;
+        t = v2.min(v6); v6 = v2.max(v6); v2 = t;
+        t = v3.min(v7); v7 = v3.max(v7); v3 = t;
+        t = v0.min(v1); v1 = v0.max(v1); v0 = t;
+        t = v2.min(v3); v3 = v2.max(v3); v2 = t;
+        t = v4.min(v5); v5 = v4.max(v5); v4 = t;
+        t = v6.min(v7); v7 = v6.max(v7); v6 = t;
+        t = v2.min(v4); v4 = v2.max(v4); v2 = t;
+        t = v3.min(v5); v5 = v3.max(v5); v3 = t;
+        t = v1.min(v4); v4 = v1.max(v4); v1 = t;
+        t = v3.min(v6); v6 = v3.max(v6); v3 = t;
+        t = v1.min(v2); v2 = v1.max(v2); v1 = t;
+        t = v3.min(v4); v4 = v3.max(v4); v3 = t;
+        t = v5.min(v6); v6 = v5.max(v6); v5 = t;
+
+        // 転置: 列 j（各行のレーン j）が8要素の昇順の連になるので、距離4・2・1のバタフライで行と列を入れ替える
+        IntVector u;
+        u = transposeLow(v0, v4, SWAP_4, UPPER_4); v4 = transposeHigh(v0, v4, SWAP_4, UPPER_4); v0 = u;
+        u = transposeLow(v1, v5, SWAP_4, UPPER_4); v5 = transposeHigh(v1, v5, SWAP_4, UPPER_4); v1 = u;
+        u = transposeLow(v2, v6, SWAP_4, UPPER_4); v6 = transposeHigh(v2, v6, SWAP_4, UPPER_4); v2 = u;
+        u = transposeLow(v3, v7, SWAP_4, UPPER_4); v7 = transposeHigh(v3, v7, SWAP_4, UPPER_4); v3 = u;
+        u = transposeLow(v0, v2, SWAP_2, UPPER_2); v2 = transposeHigh(v0, v2, SWAP_2, UPPER_2); v0 = u;
+        u = transposeLow(v1, v3, SWAP_2, UPPER_2); v3 = transposeHigh(v1, v3, SWAP_2, UPPER_2); v1 = u;
+        u = transposeLow(v4, v6, SWAP_2, UPPER_2); v6 = transposeHigh(v4, v6, SWAP_2, UPPER_2); v4 = u;
+        u = transposeLow(v5, v7, SWAP_2, UPPER_2); v7 = transposeHigh(v5, v7, SWAP_2, UPPER_2); v5 = u;
+        u = transposeLow(v0, v1, SWAP_1, UPPER_1); v1 = transposeHigh(v0, v1, SWAP_1, UPPER_1); v0 = u;
+        u = transposeLow(v2, v3, SWAP_1, UPPER_1); v3 = transposeHigh(v2, v3, SWAP_1, UPPER_1); v2 = u;
+        u = transposeLow(v4, v5, SWAP_1, UPPER_1); v5 = transposeHigh(v4, v5, SWAP_1, UPPER_1); v4 = u;
+        u = transposeLow(v6, v7, SWAP_1, UPPER_1); v7 = transposeHigh(v6, v7, SWAP_1, UPPER_1); v6 = u;
+
+        // 8+8 要素: 後ろの連を反転して min/max を取ると、小さい側・大きい側がそれぞれバイトニック列になる
+        v1 = v1.rearrange(REVERSE); t = v0.min(v1); v1 = sortBitonic(v0.max(v1)); v0 = sortBitonic(t);
+        v3 = v3.rearrange(REVERSE); t = v2.min(v3); v3 = sortBitonic(v2.max(v3)); v2 = sortBitonic(t);
+        v5 = v5.rearrange(REVERSE); t = v4.min(v5); v5 = sortBitonic(v4.max(v5)); v4 = sortBitonic(t);
+        v7 = v7.rearrange(REVERSE); t = v6.min(v7); v7 = sortBitonic(v6.max(v7)); v6 = sortBitonic(t);
+
+        // 16+16 要素: (v0, v1) と (v2, v3)、(v4, v5) と (v6, v7)
+        IntVector r2 = v2.rearrange(REVERSE);
+        IntVector r3 = v3.rearrange(REVERSE);
+        IntVector l0 = v0.min(r3);
+        IntVector h0 = v0.max(r3);
+        IntVector l1 = v1.min(r2);
+        IntVector h1 = v1.max(r2);
+        v0 = sortBitonic(l0.min(l1));
+        v1 = sortBitonic(l0.max(l1));
+        v2 = sortBitonic(h0.min(h1));
+        v3 = sortBitonic(h0.max(h1));
+        IntVector r6 = v6.rearrange(REVERSE);
+        IntVector r7 = v7.rearrange(REVERSE);
+        l0 = v4.min(r7);
+        h0 = v4.max(r7);
+        l1 = v5.min(r6);
+        h1 = v5.max(r6);
+        v4 = sortBitonic(l0.min(l1));
+        v5 = sortBitonic(l0.max(l1));
+        v6 = sortBitonic(h0.min(h1));
+        v7 = sortBitonic(h0.max(h1));
+
+        // 32+32 要素: (v0..v3) と (v4..v7)
+        IntVector r4 = v4.rearrange(REVERSE);
+        IntVector r5 = v5.rearrange(REVERSE);
+        r6 = v6.rearrange(REVERSE);
+        r7 = v7.rearrange(REVERSE);
+        l0 = v0.min(r7);
+        h0 = v0.max(r7);
+        l1 = v1.min(r6);
+        h1 = v1.max(r6);
+        IntVector l2 = v2.min(r5);
+        IntVector h2 = v2.max(r5);
+        IntVector l3 = v3.min(r4);
+        IntVector h3 = v3.max(r4);
+        // 32要素のバイトニック列を、距離16・距離8の比較とベクトル内の比較でソートする
+        t = l0.min(l2); l2 = l0.max(l2); l0 = t;
+        t = l1.min(l3); l3 = l1.max(l3); l1 = t;
+        t = h0.min(h2); h2 = h0.max(h2); h0 = t;
+        t = h1.min(h3); h3 = h1.max(h3); h1 = t;
+        v0 = sortBitonic(l0.min(l1));
+        v1 = sortBitonic(l0.max(l1));
+        v2 = sortBitonic(l2.min(l3));
+        v3 = sortBitonic(l2.max(l3));
+        v4 = sortBitonic(h0.min(h1));
+        v5 = sortBitonic(h0.max(h1));
+        v6 = sortBitonic(h2.min(h3));
+        v7 = sortBitonic(h2.max(h3));
+
+        // 埋めた値は末尾に集まるため、先頭から length 要素を書き戻す
+        storeRow(v0, arr, from, length, 0);
+        storeRow(v1, arr, from, length, 1);
+        storeRow(v2, arr, from, length, 2);
+        storeRow(v3, arr, from, length, 3);
+        storeRow(v4, arr, from, length, 4);
+        storeRow(v5, arr, from, length, 5);
+        storeRow(v6, arr, from, length, 6);
+        storeRow(v7, arr, from, length, 7);
+    }
+
+    /**
+     * バイトニック列（増加してから減少する、またはその巡回）となっているベクトルのレーンを昇順に並べ替える
+     * 距離4・2・1のレーンどうしを比較し、前のレーンに小さい方、後ろのレーンに大きい方を置く。
+     */
+    private static IntVector sortBitonic(IntVector v) {
+        return bitonicStep(bitonicStep(bitonicStep(v, SWAP_4, UPPER_4), SWAP_2, UPPER_2), SWAP_1, UPPER_1);
+    }
+
+    // 距離 d のレーンどうしを比較し、前のレーンに小さい方、後ろのレーンに大きい方を置く
+    private static IntVector bitonicStep(IntVector v, VectorShuffle<Integer> swap, VectorMask<Integer> upper) {
+        IntVector p = v.rearrange(swap);
+        return v.min(p).blend(v.max(p), upper);
+    }
+
+    // 区間の row 行目（8要素）を読み込む。区間外のレーンは読まずに Integer.MAX_VALUE で埋める
+    private static IntVector loadRow(int[] arr, int from, int length, int row) {
+        VectorMask<Integer> inRange = NETWORK_SPECIES.indexInRange(row * LANES, length);
+        return PADDING.blend(IntVector.fromArray(NETWORK_SPECIES, arr, from + row * LANES, inRange), inRange);
+    }
+
+    // row 行目のうち区間内のレーンだけを書き戻す
+    private static void storeRow(IntVector v, int[] arr, int from, int length, int row) {
+        v.intoArray(arr, from + row * LANES, NETWORK_SPECIES.indexInRange(row * LANES, length));
+    }
+
+    // 行 i と行 i + d（d は swap と upper の距離）の間で、行と列の添字のビット d が異なる要素を入れ替えた行 i
+    private static IntVector transposeLow(IntVector low, IntVector high, VectorShuffle<Integer> swap, VectorMask<Integer> upper) {
+        return low.blend(high.rearrange(swap), upper);
+    }
+
+    // transposeLow と同じ入れ替えを行った行 i + d
+    private static IntVector transposeHigh(IntVector low, IntVector high, VectorShuffle<Integer> swap, VectorMask<Integer> upper) {
+        return low.rearrange(swap).blend(high, upper);
+    }
+}
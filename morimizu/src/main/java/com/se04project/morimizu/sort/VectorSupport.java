@@ -0,0 +1,79 @@
+package com.se04project.morimizu.sort;
+
+/**
+ * Vector API を使った処理の入口
+ * 実行時に jdk.incubator.vector モジュールが読み込まれていて（--add-modules jdk.incubator.vector）、
+ * ハードウェアが256ビット以上のベクトル演算に対応している場合だけ VectorKernels を使い、
+ * それ以外はスカラーの処理で同じ結果を返す。
+ */
+public class VectorSupport {
+
+    /**
+     * sortSmall で扱える最大の要素数
+     */
+    public static final int SMALL_SORT_SIZE = 64;
+
+    // これ以下の要素数ではベクトル化せず挿入ソートを使う（ソーティングネットワークは要素数によらず64要素分の手間がかかるため）
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private static final boolean AVAILABLE = detect();
+
+    private static boolean detect() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            return VectorKernels.isHardwareSupported();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return Vector API を使った処理が有効な場合は true
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * 区間 [from, to) の最小値と最大値を求める
+     * @param arr 対象の配列
+     * @param from 開始インデックス（含む）
+     * @param to 終了インデックス（含まない。from より大きいこと）
+     * @return {最小値, 最大値}
+     */
+    public static int[] minMax(int[] arr, int from, int to) {
+        if (AVAILABLE) {
+            return VectorKernels.minMax(arr, from, to);
+        }
+        int min = arr[from];
+        int max = arr[from];
+        for (int i = from + 1; i < to; i++) {
+            if (arr[i] < min) {
+                min = arr[i];
+            } else if (arr[i] > max) {
+                max = arr[i];
+            }
+        }
+        return new int[] { min, max };
+    }
+
+    /**
+     * SMALL_SORT_SIZE 以下の区間 [from, to) を昇順にソートする
+     * ソーティングネットワークが使える場合はそれを使い、使えない場合や要素数が少ない場合は挿入ソートを使う。
+     * @param arr ソート対象の配列
+     * @param from 開始インデックス（含む）
+     * @param to 終了インデックス（含まない）
+     */
+    public static void sortSmall(int[] arr, int from, int to) {
+        if (to - from > SMALL_SORT_SIZE) {
+            throw new IllegalArgumentException("要素数が" + SMALL_SORT_SIZE + "を超えています: " + (to - from));
+        }
+        if (AVAILABLE && to - from > INSERTION_SORT_THRESHOLD) {
+            VectorKernels.sortBlock(arr, from, to);
+            return;
+        }
+        InsertionSort.sort(arr, from, to, SortObserver.NONE);
+    }
+}
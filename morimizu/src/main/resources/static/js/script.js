@@ -5,7 +5,10 @@ let sortState = {
     currentStep: 0,
     totalSteps: 0,
     originalArray: [],
-    steps: [], // ステップごとのスナップショット {array, comparingIndices}
+    operations: [], // 初期配列に順に適用する操作 {type, i, j, value}
+    replayArray: [], // replayStep まで操作を適用した配列
+    replayStep: 0,
+    highlightIndices: [],
     selectedAlgorithm: '',
     sortOrder: 'asc'
 };
@@ -74,10 +77,8 @@ function getCurrentArray() {
     if (!sortState.isRunning) {
         return parseArrayInput();
     }
-    if (sortState.currentStep < sortState.steps.length) {
-        return [...sortState.steps[sortState.currentStep].array];
-    }
-    return sortState.originalArray;
+    replayTo(sortState.currentStep);
+    return [...sortState.replayArray];
 }
 
 // ソート開始
@@ -131,7 +132,7 @@ async function startSort() {
     sortState.originalArray = [...array];
     sortState.selectedAlgorithm = algorithm;
     sortState.sortOrder = order;
-    sortState.steps = [];
+    sortState.operations = [];
 
     // 入力欄を無効化
     arrayInput.disabled = true;
@@ -140,10 +141,12 @@ async function startSort() {
 
     // バックエンドからステップデータを取得
     try {
+        // 操作ログをバイナリ形式（application/x-sort-trace）で受け取る
         const response = await fetch('/api/sort', {
             method: 'POST',
             headers: {
-                'Content-Type': 'application/json'
+                'Content-Type': 'application/json',
+                'Accept': 'application/x-sort-trace'
             },
             body: JSON.stringify({
                 array: array,
@@ -156,8 +159,13 @@ async function startSort() {
             throw new Error('ソート実行エラー');
         }
 
-        sortState.steps = await response.json();
-        sortState.totalSteps = sortState.steps.length;
+        const trace = decodeSortTrace(await response.arrayBuffer());
+        sortState.originalArray = trace.initialArray;
+        sortState.operations = trace.operations;
+        sortState.totalSteps = trace.operations.length + 1;
+        sortState.replayArray = [...trace.initialArray];
+        sortState.replayStep = 0;
+        sortState.highlightIndices = [];
 
         // 初期状態を表示
         displayStep(0);
@@ -183,7 +191,7 @@ function stopSort() {
     sortState.isRunning = false;
     sortState.isPlaying = false;
     sortState.currentStep = 0;
-    sortState.steps = [];
+    sortState.operations = [];
 
     // 入力欄を有効化
     arrayInput.disabled = false;
@@ -270,13 +278,46 @@ function nextStep() {
 
 // ステップを表示
 function displayStep(stepIndex) {
-    if (stepIndex < sortState.steps.length) {
-        const step = sortState.steps[stepIndex];
-        drawChart(step.array, step.comparingIndices);
+    if (stepIndex < sortState.totalSteps) {
+        replayTo(stepIndex);
+        drawChart(sortState.replayArray, sortState.highlightIndices);
     }
     updateProgressInfo();
 }
 
+// 指定ステップまで操作を再生する（戻る場合は初期配列からやり直す）
+function replayTo(stepIndex) {
+    if (stepIndex < sortState.replayStep) {
+        sortState.replayArray = [...sortState.originalArray];
+        sortState.replayStep = 0;
+        sortState.highlightIndices = [];
+    }
+    while (sortState.replayStep < stepIndex) {
+        const op = sortState.operations[sortState.replayStep];
+        sortState.highlightIndices = applyOperation(sortState.replayArray, op);
+        sortState.replayStep++;
+    }
+}
+
+// 操作を配列に適用し、ハイライトするインデックスを返す
+function applyOperation(array, op) {
+    switch (op.type) {
+        case 'swap': {
+            const temp = array[op.i];
+            array[op.i] = array[op.j];
+            array[op.j] = temp;
+            return [op.i, op.j];
+        }
+        case 'set':
+            array[op.i] = op.value;
+            return op.j >= 0 ? [op.i, op.j] : [op.i];
+        case 'compare':
+            return [op.i, op.j];
+        default:
+            return [];
+    }
+}
+
 // グラフを描画
 function drawChart(array, highlightIndices = []) {
     chartContainer.innerHTML = '';
@@ -961,7 +1002,8 @@ function displayCompareResult(data, selectedAlgorithms) {
         'heapSort': 'ヒープソート',
         'shellSort': 'シェルソート',
         'bucketSort': 'バケットソート',
-        'radixSort': '基数ソート'
+        'radixSort': '基数ソート',
+        'auto': '自動選択'
     };
 
     for (const algo of selectedAlgorithms) {
@@ -0,0 +1,71 @@
+// application/x-sort-trace 形式のソート過程をデコードする
+// 形式は SortTraceBinaryEncoder.java を参照
+// 戻り値は /api/sort/operations と同じ { initialArray, operations } 形式
+function decodeSortTrace(arrayBuffer) {
+    const bytes = new Uint8Array(arrayBuffer);
+    let pos = 0;
+
+    // LEB128 形式の可変長整数を読む（32ビット符号なし）
+    function readVarint() {
+        let result = 0;
+        let shift = 0;
+        let b;
+        do {
+            b = bytes[pos++];
+            result += (b & 0x7F) * Math.pow(2, shift);
+            shift += 7;
+        } while (b & 0x80);
+        return result;
+    }
+
+    // zigzag 変換を元に戻す
+    function readSigned() {
+        const v = readVarint();
+        return v % 2 === 0 ? v / 2 : -(v + 1) / 2;
+    }
+
+    const magic = String.fromCharCode(bytes[0], bytes[1], bytes[2], bytes[3]);
+    if (magic !== 'STRC' || bytes[4] !== 2) {
+        throw new Error('未対応のソート過程の形式です');
+    }
+    pos = 5;
+
+    const arrayLength = readVarint();
+    const initialArray = [];
+    for (let i = 0; i < arrayLength; i++) {
+        initialArray.push(readSigned());
+    }
+
+    // set の値の差分を戻すため、ここまでの操作を適用した配列を保持する
+    const current = [...initialArray];
+    const operations = [];
+    let lastI = 0;
+    while (pos < bytes.length) {
+        const type = readVarint();
+        const i = lastI + readSigned();
+        const j = i + readSigned();
+        lastI = i;
+
+        switch (type) {
+            case 0: {
+                const temp = current[i];
+                current[i] = current[j];
+                current[j] = temp;
+                operations.push({ type: 'swap', i: i, j: j, value: 0 });
+                break;
+            }
+            case 1: {
+                const value = (current[i] + readSigned()) | 0;
+                current[i] = value;
+                operations.push({ type: 'set', i: i, j: j, value: value });
+                break;
+            }
+            case 2:
+                operations.push({ type: 'compare', i: i, j: j, value: 0 });
+                break;
+            default:
+                throw new Error('不明な操作の種類です: ' + type);
+        }
+    }
+    return { initialArray: initialArray, operations: operations };
+}
@@ -140,6 +140,497 @@ public class SortAlgorithmTests {
         testAllAlgorithms(largeArray, expected, "大規模ランダム配列");
     }
     
+    /**
+     * 並列マージソートのテスト（並列化・並列マージが働く大きさ）
+     */
+    @Test
+    public void testParallelMergeSort() {
+        int[][] inputs = {
+                TestDataGenerator.generateRandomArray(300000, -1000000000, 1000000000),
+                TestDataGenerator.generateArrayWithDuplicates(200000, 7),
+                TestDataGenerator.generateReverseSortedArray(100000),
+                TestDataGenerator.generateRandomArray(33, -10, 10)
+        };
+        for (int[] input : inputs) {
+            int[] expected = TestDataGenerator.copyArray(input);
+            java.util.Arrays.sort(expected);
+            MergeSort.parallelSort(input);
+            assertArrayEquals(expected, input, "並列マージソート - 要素数 " + input.length);
+        }
+    }
+    
+    /**
+     * クイックソートが偏った入力でも正しく終わることのテスト
+     */
+    @Test
+    public void testQuickSortWithAdversarialInputs() {
+        int n = 200000;
+        int[] organPipe = new int[n];
+        for (int i = 0; i < n; i++) {
+            organPipe[i] = i < n / 2 ? i : n - i;
+        }
+        int[][] inputs = {
+                TestDataGenerator.generateSortedArray(n),
+                TestDataGenerator.generateReverseSortedArray(n),
+                TestDataGenerator.generateArrayWithDuplicates(n, 3),
+                TestDataGenerator.generateNearlySortedArray(n, 100),
+                organPipe
+        };
+        for (int[] input : inputs) {
+            int[] expected = TestDataGenerator.copyArray(input);
+            java.util.Arrays.sort(expected);
+            QuickSort.sort(input);
+            assertArrayEquals(expected, input, "クイックソート - 要素数 " + input.length);
+        }
+    }
+    
+    /**
+     * ヒープソートで配列の一部の区間だけをソートするテスト
+     */
+    @Test
+    public void testHeapSortRange() {
+        int[] array = TestDataGenerator.generateRandomArray(100, -1000, 1000);
+        int[] expected = TestDataGenerator.copyArray(array);
+        java.util.Arrays.sort(expected, 20, 80);
+        HeapSort.heapSort(array, 20, 80, SortObserver.NONE);
+        assertArrayEquals(expected, array, "ヒープソート - 区間 [20, 80)");
+    }
+    
+    /**
+     * d 分木のヒープソートのテスト
+     */
+    @Test
+    public void testDAryHeapSort() {
+        int[][] inputs = {
+                TestDataGenerator.generateRandomArray(10000, -100000, 100000),
+                TestDataGenerator.generateArrayWithDuplicates(5000, 4),
+                TestDataGenerator.generateReverseSortedArray(3000),
+                {},
+                {1}
+        };
+        for (int arity : new int[] {2, 3, 4, 8}) {
+            for (int[] input : inputs) {
+                int[] array = TestDataGenerator.copyArray(input);
+                int[] expected = TestDataGenerator.copyArray(input);
+                java.util.Arrays.sort(expected);
+                HeapSort.dAryHeapSort(array, arity);
+                assertArrayEquals(expected, array, arity + "分木ヒープソート - 要素数 " + input.length);
+            }
+        }
+    }
+    
+    /**
+     * ヒープソートを複数スレッドから同時に呼び出すテスト
+     */
+    @Test
+    public void testHeapSortConcurrently() throws Exception {
+        java.util.concurrent.ExecutorService executor = java.util.concurrent.Executors.newFixedThreadPool(4);
+        try {
+            java.util.List<java.util.concurrent.Future<Boolean>> results = new java.util.ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int size = 20000 + t * 1000;
+                results.add(executor.submit(() -> {
+                    int[] array = TestDataGenerator.generateRandomArray(size, -1000000, 1000000);
+                    HeapSort.heapSort(array);
+                    return array.length == size && TestDataGenerator.isSortedAscending(array);
+                }));
+            }
+            for (java.util.concurrent.Future<Boolean> result : results) {
+                assertTrue(result.get(), "並行実行したヒープソートの結果が昇順ではありません");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    /**
+     * 基数ソートで int の全範囲と並列集計が働く大きさを扱うテスト
+     */
+    @Test
+    public void testRadixSortFullIntRange() {
+        java.util.Random random = new java.util.Random(14);
+        int[] full = new int[200000];
+        for (int i = 0; i < full.length; i++) {
+            full[i] = random.nextInt();
+        }
+        full[0] = Integer.MIN_VALUE;
+        full[1] = Integer.MAX_VALUE;
+        int[][] inputs = {
+                full,
+                TestDataGenerator.generateArrayWithNegativeNumbers(5000),
+                TestDataGenerator.generateArrayWithDuplicates(100000, 2),
+                {-1, 0, -256, 255, 256, -257}
+        };
+        for (int[] input : inputs) {
+            int[] expected = TestDataGenerator.copyArray(input);
+            java.util.Arrays.sort(expected);
+            RadixSort.sort(input);
+            assertArrayEquals(expected, input, "基数ソート - 要素数 " + input.length);
+        }
+    }
+    
+    /**
+     * バケットソートで値の範囲が極端に広い・偏った入力を扱うテスト
+     */
+    @Test
+    public void testBucketSortWideAndSkewedRanges() {
+        int[] skewed = TestDataGenerator.generateRandomArray(50000, 0, 1000);
+        skewed[0] = Integer.MIN_VALUE;
+        skewed[1] = Integer.MAX_VALUE;
+        int[][] inputs = {
+                {Integer.MAX_VALUE, Integer.MIN_VALUE, 0},
+                skewed,
+                TestDataGenerator.generateRandomArray(100000, -1000000000, 1000000000),
+                TestDataGenerator.generateArrayWithDuplicates(100000, 10)
+        };
+        for (int[] input : inputs) {
+            int[] expected = TestDataGenerator.copyArray(input);
+            java.util.Arrays.sort(expected);
+            BucketSort.bucketSort(input);
+            assertArrayEquals(expected, input, "バケットソート - 要素数 " + input.length);
+        }
+    }
+    
+    /**
+     * シェルソートの各ギャップ列のテスト
+     */
+    @Test
+    public void testShellSortGapSequences() {
+        assertArrayEquals(new int[] {701, 301, 132, 57, 23, 10, 4, 1}, GapSequence.CIURA.gaps(1000));
+        assertArrayEquals(new int[] {103, 46, 20, 9, 4, 1}, GapSequence.TOKUDA.gaps(200));
+        assertArrayEquals(new int[] {77, 23, 8, 1}, GapSequence.SEDGEWICK.gaps(100));
+        assertArrayEquals(new int[] {9, 8, 6, 4, 3, 2, 1}, GapSequence.PRATT.gaps(10));
+        assertArrayEquals(new int[] {50, 25, 12, 6, 3, 1}, GapSequence.SHELL.gaps(100));
+
+        int[][] inputs = {
+                TestDataGenerator.generateRandomArray(20000, -100000, 100000),
+                TestDataGenerator.generateReverseSortedArray(5000),
+                TestDataGenerator.generateArrayWithDuplicates(5000, 3),
+                {2, 1}
+        };
+        for (GapSequence gapSequence : GapSequence.values()) {
+            assertEquals(0, gapSequence.gaps(1).length, "要素数1のギャップ列");
+            for (int[] input : inputs) {
+                int[] array = TestDataGenerator.copyArray(input);
+                int[] expected = TestDataGenerator.copyArray(input);
+                java.util.Arrays.sort(expected);
+                ShellSort.sort(array, gapSequence);
+                assertArrayEquals(expected, array, "シェルソート（" + gapSequence + "） - 要素数 " + input.length);
+            }
+        }
+        assertEquals(GapSequence.CIURA, GapSequence.fromName("ciura"));
+        assertEquals(GapSequence.SHELL, GapSequence.fromName(null));
+        assertThrows(IllegalArgumentException.class, () -> GapSequence.fromName("unknown"));
+    }
+    
+    /**
+     * 自然マージソートのテスト（ソート済み・逆順・ほぼ整列済み・ランダム）
+     */
+    @Test
+    public void testNaturalMergeSort() {
+        int[][] inputs = {
+                TestDataGenerator.generateSortedArray(10000),
+                TestDataGenerator.generateReverseSortedArray(10000),
+                TestDataGenerator.generateNearlySortedArray(10000, 50),
+                TestDataGenerator.generateRandomArray(10000, -1000, 1000),
+                TestDataGenerator.generateRandomArray(33, -10, 10),
+                {3, 3, 2, 2, 1, 1}
+        };
+        for (int[] input : inputs) {
+            int[] expected = TestDataGenerator.copyArray(input);
+            java.util.Arrays.sort(expected);
+            MergeSort.naturalSort(input);
+            assertArrayEquals(expected, input, "自然マージソート - 要素数 " + input.length);
+        }
+    }
+    
+    /**
+     * 自動選択が入力の特徴に応じたアルゴリズムを選び、正しくソートすることのテスト
+     */
+    @Test
+    public void testAdaptiveSort() {
+        int[] wide = TestDataGenerator.generateRandomArray(100000, -1000000000, 1000000000);
+        int[] fewValues = new int[10000];
+        for (int i = 0; i < fewValues.length; i++) {
+            fewValues[i] = (i * 7919 % 5) * 100000;
+        }
+        Object[][] cases = {
+                {TestDataGenerator.generateRandomArray(20, -100, 100), AdaptiveSort.Strategy.INSERTION},
+                {TestDataGenerator.generateSortedArray(5000), AdaptiveSort.Strategy.NATURAL_MERGE},
+                {TestDataGenerator.generateReverseSortedArray(5000), AdaptiveSort.Strategy.NATURAL_MERGE},
+                {TestDataGenerator.generateRandomArray(5000, 0, 999), AdaptiveSort.Strategy.COUNTING},
+                {fewValues, AdaptiveSort.Strategy.INTROSORT},
+                {wide, AdaptiveSort.Strategy.RADIX},
+                {TestDataGenerator.generateRandomArray(5000, -1000000, 1000000), AdaptiveSort.Strategy.INTROSORT}
+        };
+        for (Object[] testCase : cases) {
+            int[] input = (int[]) testCase[0];
+            int[] expected = TestDataGenerator.copyArray(input);
+            java.util.Arrays.sort(expected);
+            AdaptiveSort.Strategy strategy = AdaptiveSort.sort(input, SortObserver.NONE);
+            assertEquals(testCase[1], strategy, "自動選択 - 要素数 " + input.length);
+            assertArrayEquals(expected, input, "自動選択（" + strategy + "） - 要素数 " + input.length);
+        }
+    }
+    
+    /**
+     * 並列サンプルソートのテスト（スレッド数・データの種類を変えて確認）
+     */
+    @Test
+    public void testSampleSort() {
+        int[][] inputs = {
+                TestDataGenerator.generateRandomArray(300000, -1000000000, 1000000000),
+                TestDataGenerator.generateArrayWithDuplicates(200000, 3),
+                TestDataGenerator.generateSortedArray(100000),
+                new int[50000],
+                TestDataGenerator.generateRandomArray(1000, -10, 10)
+        };
+        for (int threads : new int[] {1, 3, 8}) {
+            java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(threads);
+            try {
+                for (int[] input : inputs) {
+                    int[] array = TestDataGenerator.copyArray(input);
+                    int[] expected = TestDataGenerator.copyArray(input);
+                    java.util.Arrays.sort(expected);
+                    SampleSort.parallelSort(array, pool);
+                    assertArrayEquals(expected, array, "サンプルソート（" + threads + "スレッド） - 要素数 " + input.length);
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+    
+    /**
+     * long 配列のソートのテスト
+     */
+    @Test
+    public void testLongSort() {
+        java.util.Random random = new java.util.Random(20);
+        for (int size : new int[] {0, 1, 50, 100000}) {
+            long[] array = new long[size];
+            for (int i = 0; i < size; i++) {
+                array[i] = i % 3 == 0 ? random.nextLong() : random.nextInt(1000) - 500;
+            }
+            if (size > 2) {
+                array[0] = Long.MIN_VALUE;
+                array[1] = Long.MAX_VALUE;
+            }
+            long[] expected = array.clone();
+            java.util.Arrays.sort(expected);
+            LongSort.sort(array);
+            assertArrayEquals(expected, array, "long 配列のソート - 要素数 " + size);
+        }
+    }
+    
+    /**
+     * double 配列のソートのテスト（-0.0 は 0.0 より前、NaN は末尾）
+     */
+    @Test
+    public void testDoubleSort() {
+        java.util.Random random = new java.util.Random(20);
+        double[] array = new double[50000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(20) - 10);
+        }
+        double[] special = {
+                Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE,
+                Double.longBitsToDouble(0xfff8000000000001L)
+        };
+        System.arraycopy(special, 0, array, 0, special.length);
+
+        for (double[] input : new double[][] {array, special.clone(), {}}) {
+            double[] expected = input.clone();
+            java.util.Arrays.sort(expected);
+            DoubleSort.sort(input);
+            assertArrayEquals(toBits(expected), toBits(input), "double 配列のソート - 要素数 " + input.length);
+        }
+    }
+    
+    /**
+     * キーとペイロードを一緒に並べ替えるテスト（同じキーは元の順序を保つ）
+     */
+    @Test
+    public void testRecordSort() {
+        int[] keys = TestDataGenerator.generateRandomArray(100000, -50, 50);
+        keys[0] = Integer.MIN_VALUE;
+        int[] rowIds = new int[keys.length];
+        long[] payload = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            rowIds[i] = i;
+            payload[i] = (long) keys[i] * 1000000L + i;
+        }
+        int[] keysForLong = keys.clone();
+
+        RecordSort.sort(keys, rowIds);
+        RecordSort.sort(keysForLong, payload);
+
+        assertArrayEquals(keys, keysForLong, "キーの並び");
+        assertTrue(TestDataGenerator.isSortedAscending(keys), "キーが昇順ではありません");
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals((long) keys[i] * 1000000L + rowIds[i], payload[i], "ペイロード - 位置 " + i);
+            if (i > 0 && keys[i] == keys[i - 1]) {
+                assertTrue(rowIds[i - 1] < rowIds[i], "同じキーの順序が保たれていません - 位置 " + i);
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> RecordSort.sort(new int[2], new int[3]));
+    }
+    
+    /**
+     * ソート後の順序を求め、他の列に適用するテスト
+     */
+    @Test
+    public void testArgSort() {
+        int[] values = {30, 10, 20, 10, 30};
+        assertArrayEquals(new int[] {1, 3, 2, 0, 4}, ArgSort.argSort(values));
+        assertArrayEquals(new int[] {0, 4, 2, 1, 3}, ArgSort.argSort(values, true));
+        assertArrayEquals(new int[] {30, 10, 20, 10, 30}, values, "元の配列が変更されています");
+
+        int[] large = TestDataGenerator.generateRandomArray(50000, -100, 100);
+        int[] order = ArgSort.argSort(large);
+        int[] sorted = ArgSort.apply(order, large);
+        int[] expected = TestDataGenerator.copyArray(large);
+        java.util.Arrays.sort(expected);
+        assertArrayEquals(expected, sorted, "順序を適用した列");
+        for (int k = 1; k < order.length; k++) {
+            if (sorted[k] == sorted[k - 1]) {
+                assertTrue(order[k - 1] < order[k], "同じ値の順序が保たれていません - 位置 " + k);
+            }
+        }
+
+        double[] prices = {1.5, 2.5, 3.5, 4.5, 5.5};
+        assertArrayEquals(new double[] {2.5, 4.5, 3.5, 1.5, 5.5}, ArgSort.apply(ArgSort.argSort(values), prices));
+        assertThrows(IllegalArgumentException.class, () -> ArgSort.apply(new int[2], new long[3]));
+    }
+    
+    /**
+     * k 番目の値・上位 k 個・パーセンタイルの選択のテスト
+     */
+    @Test
+    public void testSelection() {
+        int[][] inputs = {
+                TestDataGenerator.generateRandomArray(20000, -1000000, 1000000),
+                TestDataGenerator.generateSortedArray(20000),
+                TestDataGenerator.generateReverseSortedArray(20000),
+                TestDataGenerator.generateArrayWithDuplicates(20000, 3),
+                {7}
+        };
+        for (int[] input : inputs) {
+            int n = input.length;
+            int[] sorted = TestDataGenerator.copyArray(input);
+            java.util.Arrays.sort(sorted);
+
+            for (int k : new int[] {0, n / 3, n / 2, n - 1}) {
+                int[] array = TestDataGenerator.copyArray(input);
+                assertEquals(sorted[k], Selection.select(array, k), "k 番目の値 - k = " + k);
+                for (int i = 0; i < n; i++) {
+                    assertTrue(i <= k ? array[i] <= array[k] : array[i] >= array[k], "選択後の並び - 位置 " + i);
+                }
+            }
+
+            int k = Math.min(10, n);
+            assertArrayEquals(java.util.Arrays.copyOf(sorted, k), Selection.smallest(input, k), "小さい方から k 個");
+            int[] largest = new int[k];
+            for (int i = 0; i < k; i++) {
+                largest[i] = sorted[n - 1 - i];
+            }
+            assertArrayEquals(largest, Selection.largest(input, k), "大きい方から k 個");
+
+            int[] values = Selection.percentiles(TestDataGenerator.copyArray(input), 0, 50, 99, 100, 50);
+            int[] expected = {
+                    sorted[0], sorted[(n + 1) / 2 - 1], sorted[(int) Math.ceil(0.99 * n) - 1], sorted[n - 1], sorted[(n + 1) / 2 - 1]
+            };
+            assertArrayEquals(expected, values, "パーセンタイル - 要素数 " + n);
+        }
+        assertThrows(IllegalArgumentException.class, () -> Selection.select(new int[3], 3));
+        assertThrows(IllegalArgumentException.class, () -> Selection.percentiles(new int[3], 101));
+        assertArrayEquals(new int[] {1, 2, 3}, Selection.smallest(new int[] {3, 1, 2}, 5));
+    }
+
+    /**
+     * 小さい区間のソートと最小値・最大値の走査（Vector API が使えない環境ではスカラーの処理）のテスト
+     */
+    @Test
+    public void testVectorSupport() {
+        java.util.Random random = new java.util.Random(23);
+        for (int length = 0; length <= VectorSupport.SMALL_SORT_SIZE; length++) {
+            for (int trial = 0; trial < 20; trial++) {
+                int[] array = new int[length + 4];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = trial % 2 == 0 ? random.nextInt() : random.nextInt(4);
+                }
+                array[2] = trial == 1 ? Integer.MAX_VALUE : array[2];
+                int[] expected = TestDataGenerator.copyArray(array);
+                java.util.Arrays.sort(expected, 2, 2 + length);
+                VectorSupport.sortSmall(array, 2, 2 + length);
+                assertArrayEquals(expected, array, "小さい区間のソート - 要素数 " + length);
+            }
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> VectorSupport.sortSmall(new int[VectorSupport.SMALL_SORT_SIZE + 1], 0, VectorSupport.SMALL_SORT_SIZE + 1));
+
+        int[] values = TestDataGenerator.generateRandomArray(1003, -1000000, 1000000);
+        values[500] = Integer.MIN_VALUE;
+        values[1002] = Integer.MAX_VALUE;
+        for (int from : new int[] {0, 1, 7, 999}) {
+            int min = values[from];
+            int max = values[from];
+            for (int i = from; i < 1002; i++) {
+                min = Math.min(min, values[i]);
+                max = Math.max(max, values[i]);
+            }
+            assertArrayEquals(new int[] {min, max}, VectorSupport.minMax(values, from, 1002), "最小値と最大値 - 開始 " + from);
+        }
+    }
+
+    /**
+     * 降順ソート（キーの反転と基数ソートの直接の降順）のテスト
+     */
+    @Test
+    public void testSortOrder() {
+        int[][] inputs = {
+                TestDataGenerator.generateRandomArray(100000, -1000000000, 1000000000),
+                TestDataGenerator.generateArrayWithDuplicates(1000, 5),
+                {Integer.MIN_VALUE, -1, 0, Integer.MAX_VALUE, 1},
+                {}
+        };
+        for (int[] input : inputs) {
+            int n = input.length;
+            int[] descending = TestDataGenerator.copyArray(input);
+            java.util.Arrays.sort(descending);
+            for (int i = 0; i < n / 2; i++) {
+                int temp = descending[i];
+                descending[i] = descending[n - 1 - i];
+                descending[n - 1 - i] = temp;
+            }
+
+            int[] radix = TestDataGenerator.copyArray(input);
+            RadixSort.sort(radix, SortOrder.DESCENDING);
+            assertArrayEquals(descending, radix, "基数ソートの降順 - 要素数 " + n);
+
+            int[] quick = TestDataGenerator.copyArray(input);
+            SortOrder.DESCENDING.sort(quick, QuickSort::sort);
+            assertArrayEquals(descending, quick, "クイックソートの降順 - 要素数 " + n);
+
+            int[] ascending = TestDataGenerator.copyArray(input);
+            RadixSort.sort(ascending, SortOrder.ASCENDING);
+            java.util.Arrays.sort(input);
+            assertArrayEquals(input, ascending, "基数ソートの昇順 - 要素数 " + n);
+        }
+        assertEquals(SortOrder.ASCENDING, SortOrder.fromName(null));
+        assertEquals(SortOrder.DESCENDING, SortOrder.fromName("desc"));
+        assertThrows(IllegalArgumentException.class, () -> SortOrder.fromName("random"));
+    }
+
+    private static long[] toBits(double[] values) {
+        long[] bits = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bits[i] = Double.doubleToLongBits(values[i]);
+        }
+        return bits;
+    }
+    
     /**
      * すべてのソートアルゴリズムをテストするヘルパーメソッド
      * @param originalArray テスト対象の配列
@@ -176,5 +667,25 @@ public class SortAlgorithmTests {
         ShellSort.sort(shellArray);
         assertArrayEquals(expected, shellArray, "シェルソート - " + testName);
         assertTrue(TestDataGenerator.isSortedAscending(shellArray), "シェルソート結果が昇順ではありません - " + testName);
+        
+        // 挿入ソートのテスト
+        int[] insertionArray = TestDataGenerator.copyArray(originalArray);
+        InsertionSort.sort(insertionArray);
+        assertArrayEquals(expected, insertionArray, "挿入ソート - " + testName);
+        
+        // ヒープソートのテスト
+        int[] heapArray = TestDataGenerator.copyArray(originalArray);
+        HeapSort.heapSort(heapArray);
+        assertArrayEquals(expected, heapArray, "ヒープソート - " + testName);
+        
+        // バケットソートのテスト
+        int[] bucketArray = TestDataGenerator.copyArray(originalArray);
+        BucketSort.bucketSort(bucketArray);
+        assertArrayEquals(expected, bucketArray, "バケットソート - " + testName);
+        
+        // 基数ソートのテスト
+        int[] radixArray = TestDataGenerator.copyArray(originalArray);
+        RadixSort.sort(radixArray);
+        assertArrayEquals(expected, radixArray, "基数ソート - " + testName);
     }
 }
@@ -0,0 +1,107 @@
+package com.se04project.morimizu;
+
+import com.se04project.morimizu.sort.SortOrder;
+import com.se04project.morimizu.sort.TestDataGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SortApiControllerのテストクラス
+ * コントローラーを直接呼び出し、入力の検証とレスポンスを確認する
+ */
+public class SortApiControllerTests {
+
+    /**
+     * maxFrames が2未満の場合に 400 になることのテスト
+     */
+    @Test
+    public void testInvalidMaxFramesIsBadRequest() {
+        SortApiController controller = new SortApiController();
+        for (int maxFrames : new int[] { 1, 0, -5 }) {
+            SortRequest request = new SortRequest(List.of(3, 1, 2), "bubbleSort", "asc");
+            request.setMaxFrames(maxFrames);
+            ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                    () -> controller.sort(request, null), "maxFrames = " + maxFrames);
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        }
+
+        SortRequest request = new SortRequest(List.of(3, 1, 2), "bubbleSort", "asc");
+        request.setMaxFrames(2);
+        SortStepBuffer steps = (SortStepBuffer) controller.sort(request, null).getBody();
+        assertEquals(2, steps.size());
+        assertEquals(List.of(1, 2, 3), steps.get(1).getArray());
+    }
+
+    /**
+     * Accept で application/x-sort-trace を指定すると操作ログのバイナリ形式で返り、
+     * maxFrames を指定した場合は JSON のスナップショットで返ることのテスト
+     */
+    @Test
+    public void testSortNegotiatesBinaryTrace() {
+        SortApiController controller = new SortApiController();
+        SortRequest request = new SortRequest(List.of(3, 1, 2), "bubbleSort", "asc");
+        byte[] binary = (byte[]) controller.sort(request, "application/x-sort-trace, application/json").getBody();
+        SortTrace trace = new SortService().executeSortWithOperations(request.getArray(), "bubbleSort", SortOrder.ASCENDING);
+        assertArrayEquals(SortTraceBinaryEncoder.encode(trace), binary);
+
+        request.setMaxFrames(2);
+        assertTrue(controller.sort(request, SortTraceBinaryEncoder.CONTENT_TYPE).getBody() instanceof SortStepBuffer);
+    }
+
+    /**
+     * ストリーム送信中に書き込めなくなった場合、UncheckedIOException ではなく元の IOException で終わることのテスト
+     */
+    @Test
+    public void testSortStreamRethrowsWriteFailure() {
+        List<Integer> array = new ArrayList<>();
+        for (int value : TestDataGenerator.generateRandomArray(2000, 0, 100000)) {
+            array.add(value);
+        }
+        StreamingResponseBody body = new SortApiController()
+                .sortStream(new SortRequest(array, "bubbleSort", "asc")).getBody();
+
+        // 初期配列の行を送った後、クライアントが切断した状態
+        IOException disconnected = new IOException("切断");
+        OutputStream out = new OutputStream() {
+            private boolean flushed;
+
+            @Override
+            public void write(int b) throws IOException {
+                if (flushed) {
+                    throw disconnected;
+                }
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (flushed) {
+                    throw disconnected;
+                }
+            }
+
+            @Override
+            public void flush() {
+                flushed = true;
+            }
+        };
+        IOException e = assertThrows(IOException.class, () -> body.writeTo(out));
+        assertSame(disconnected, e);
+    }
+
+    /**
+     * 不正なソート順はストリームを作る前に 400 になることのテスト
+     */
+    @Test
+    public void testSortStreamRejectsUnknownOrder() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> new SortApiController().sortStream(new SortRequest(List.of(2, 1), "bubbleSort", "up")));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+}
@@ -0,0 +1,374 @@
+package com.se04project.morimizu;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.se04project.morimizu.sort.TestDataGenerator;
+import com.se04project.morimizu.sort.SortOrder;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SortServiceのテストクラス
+ */
+public class SortServiceTests {
+
+    private static final String[] ALGORITHMS = {
+            "bubbleSort", "selectionSort", "insertionSort", "quickSort", "mergeSort",
+            "heapSort", "shellSort", "bucketSort", "radixSort", "auto"
+    };
+
+    /**
+     * 操作ログを再生した結果がスナップショット形式の各ステップと一致することのテスト
+     */
+    @Test
+    public void testOperationsReplayMatchesSteps() {
+        List<Integer> input = toList(TestDataGenerator.generateArrayWithNegativeNumbers(30));
+        SortService service = new SortService();
+
+        for (String algorithm : ALGORITHMS) {
+            for (SortOrder order : SortOrder.values()) {
+                SortStepBuffer steps = service.executeSortWithSteps(input, algorithm, order);
+                SortTrace trace = service.executeSortWithOperations(input, algorithm, order);
+
+                assertEquals(input, trace.getInitialArray(), algorithm + " - 初期配列");
+
+                // スナップショットは配列が変化する操作ごとに1つ作られる
+                List<Integer> replay = new ArrayList<>(trace.getInitialArray());
+                int step = 0;
+                for (SortOperation operation : trace.getOperations()) {
+                    apply(replay, operation);
+                    if (!SortOperation.COMPARE.equals(operation.getType())) {
+                        step++;
+                        assertEquals(steps.get(step).getArray(), replay, algorithm + " - ステップ " + step);
+                    }
+                }
+                assertEquals(steps.size(), step + 1, algorithm + " - ステップ数");
+            }
+        }
+    }
+
+    /**
+     * 比較が compare 操作として記録され、再生しても配列が変化しないことのテスト
+     */
+    @Test
+    public void testCompareOperationsAreRecorded() {
+        // クイックソートは64要素以下の区間を挿入ソートで処理するため、分割が起きる要素数にする
+        List<Integer> input = toList(TestDataGenerator.generateRandomArray(200, -100, 100));
+        SortService service = new SortService();
+
+        for (String algorithm : new String[] { "bubbleSort", "selectionSort", "quickSort", "heapSort" }) {
+            for (SortOrder order : SortOrder.values()) {
+                SortTrace trace = service.executeSortWithOperations(input, algorithm, order);
+                List<Integer> replay = new ArrayList<>(trace.getInitialArray());
+                int compares = 0;
+                for (SortOperation operation : trace.getOperations()) {
+                    if (SortOperation.COMPARE.equals(operation.getType())) {
+                        compares++;
+                        assertTrue(operation.getI() >= 0 && operation.getI() < input.size(), algorithm + " - 比較位置");
+                        assertTrue(operation.getJ() >= 0 && operation.getJ() < input.size(), algorithm + " - 比較位置");
+                        List<Integer> before = new ArrayList<>(replay);
+                        apply(replay, operation);
+                        assertEquals(before, replay, algorithm + " - 比較で配列が変化しています");
+                    } else {
+                        apply(replay, operation);
+                    }
+                }
+                assertTrue(compares > 0, algorithm + " - compare 操作が記録されていません");
+
+                List<Integer> expected = new ArrayList<>(input);
+                expected.sort(order == SortOrder.ASCENDING ? null : Collections.reverseOrder());
+                assertEquals(expected, replay, algorithm + " - " + order);
+            }
+        }
+
+        // 比較だけの操作もシーク可能なソート過程のステップになり、2つの位置がハイライトされる
+        StoredSortTrace stored = service.executeSortWithKeyframes(List.of(1, 2), "bubbleSort", SortOrder.ASCENDING);
+        assertEquals(2, stored.getTotalSteps());
+        SortStep compared = stored.getSteps(1, 2).get(0);
+        assertEquals(List.of(1, 2), compared.getArray());
+        assertEquals(List.of(0, 1), compared.getComparingIndices());
+    }
+
+    /**
+     * バケットソートと基数ソートの記録量が要素数に比例することのテスト
+     */
+    @Test
+    public void testLinearSortTraceLength() {
+        int n = 500;
+        List<Integer> input = toList(TestDataGenerator.generateRandomArray(n, -500, 500));
+        SortService service = new SortService();
+
+        for (SortOrder order : SortOrder.values()) {
+            List<Integer> expected = new ArrayList<>(input);
+            expected.sort(order == SortOrder.ASCENDING ? null : Collections.reverseOrder());
+
+            SortTrace bucket = service.executeSortWithOperations(input, "bucketSort", order);
+            assertEquals(n, bucket.getOperations().size(), "バケットソート - 操作数");
+            assertEquals(expected, replay(bucket), "バケットソート - " + order);
+
+            // 値の範囲は 0〜1000 なので4桁分のパス
+            SortTrace radix = service.executeSortWithOperations(input, "radixSort", order);
+            assertTrue(radix.getOperations().size() <= n * 4, "基数ソート - 操作数");
+            assertEquals(expected, replay(radix), "基数ソート - " + order);
+        }
+    }
+
+    /**
+     * maxFrames を指定した場合にステップ数が上限以内となり、最初と最後のステップが保たれることのテスト
+     */
+    @Test
+    public void testMaxFramesLimitsSteps() {
+        List<Integer> input = toList(TestDataGenerator.generateRandomArray(200, 0, 1000));
+        List<Integer> expected = new ArrayList<>(input);
+        expected.sort(null);
+        SortService service = new SortService();
+        int unthinned = service.executeSortWithSteps(input, "bubbleSort", SortOrder.ASCENDING).size();
+
+        for (int maxFrames : new int[] { 2, 3, 10, 101, 1000 }) {
+            SortStepBuffer steps = service.executeSortWithSteps(input, "bubbleSort", SortOrder.ASCENDING, maxFrames);
+            assertTrue(steps.size() <= maxFrames, "ステップ数が上限を超えています: " + steps.size());
+            // 間隔を倍にしながら間引くため、間引きが必要な場合も上限の半分以上は残る
+            assertTrue(unthinned > maxFrames, "間引きが起きる入力であること");
+            assertTrue(steps.size() >= maxFrames / 2, "ステップ数が少なすぎます: " + steps.size() + " / " + maxFrames);
+            assertEquals(input, steps.get(0).getArray());
+            assertEquals(expected, steps.get(steps.size() - 1).getArray());
+        }
+
+        // 上限が十分大きい場合は間引かれない
+        SortStepBuffer all = service.executeSortWithSteps(input, "mergeSort", SortOrder.ASCENDING);
+        SortStepBuffer sampled = service.executeSortWithSteps(input, "mergeSort", SortOrder.ASCENDING, all.size());
+        assertEquals(all.size(), sampled.size());
+    }
+
+    /**
+     * キーフレーム付きで保存したソート過程から任意の範囲を取り出せることのテスト
+     */
+    @Test
+    public void testStoredTraceRangeMatchesSteps() {
+        List<Integer> input = toList(TestDataGenerator.generateRandomArray(100, -100, 100));
+        SortService service = new SortService();
+
+        for (String algorithm : new String[] { "quickSort", "mergeSort", "insertionSort" }) {
+            SortStepBuffer all = replaySteps(service.executeSortWithOperations(input, algorithm, SortOrder.ASCENDING));
+            StoredSortTrace trace = service.executeSortWithKeyframes(input, algorithm, SortOrder.ASCENDING);
+            assertEquals(all.size(), trace.getTotalSteps(), algorithm + " - ステップ数");
+
+            int[][] ranges = { { 0, 1 }, { 0, 70 }, { 63, 130 }, { 64, 65 }, { all.size() - 5, all.size() } };
+            for (int[] range : ranges) {
+                SortStepBuffer window = trace.getSteps(range[0], range[1]);
+                assertEquals(range[1] - range[0], window.size());
+                for (int k = 0; k < window.size(); k++) {
+                    SortStep expected = all.get(range[0] + k);
+                    assertEquals(expected.getArray(), window.get(k).getArray(), algorithm + " - ステップ " + (range[0] + k));
+                    assertEquals(expected.getComparingIndices(), window.get(k).getComparingIndices());
+                }
+            }
+        }
+    }
+
+    /**
+     * SortStepBuffer が List&lt;SortStep&gt; と同じ JSON に書き出されることのテスト
+     */
+    @Test
+    public void testStepBufferSerializesLikeStepList() throws Exception {
+        List<Integer> input = toList(TestDataGenerator.generateRandomArray(25, -50, 50));
+        SortStepBuffer steps = new SortService().executeSortWithSteps(input, "insertionSort", SortOrder.ASCENDING);
+
+        List<SortStep> expected = new ArrayList<>();
+        for (int k = 0; k < steps.size(); k++) {
+            expected.add(steps.get(k));
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals(mapper.writeValueAsString(expected), mapper.writeValueAsString(steps));
+        assertEquals(List.of(), steps.get(0).getComparingIndices());
+    }
+
+    /**
+     * バイナリ形式を復元すると元の操作ログと一致することのテスト
+     */
+    @Test
+    public void testBinaryEncodingRoundTrip() {
+        List<Integer> input = toList(TestDataGenerator.generateRandomArray(30, -1000, 1000));
+        input.set(0, Integer.MIN_VALUE);
+        input.set(1, Integer.MAX_VALUE);
+        for (String algorithm : new String[] { "heapSort", "mergeSort", "radixSort" }) {
+            SortTrace trace = new SortService().executeSortWithOperations(input, algorithm, SortOrder.DESCENDING);
+
+            ByteBuffer in = ByteBuffer.wrap(SortTraceBinaryEncoder.encode(trace));
+            assertEquals('S', in.get());
+            assertEquals('T', in.get());
+            assertEquals('R', in.get());
+            assertEquals('C', in.get());
+            assertEquals(2, in.get());
+            int arrayLength = readVarint(in);
+            List<Integer> current = new ArrayList<>();
+            for (int i = 0; i < arrayLength; i++) {
+                current.add(unzigzag(readVarint(in)));
+            }
+            assertEquals(input, current, algorithm + " - 初期配列");
+
+            String[] types = { SortOperation.SWAP, SortOperation.SET, SortOperation.COMPARE };
+            int lastI = 0;
+            int k = 0;
+            while (in.hasRemaining()) {
+                String type = types[readVarint(in)];
+                int i = lastI + unzigzag(readVarint(in));
+                int j = i + unzigzag(readVarint(in));
+                int value = type.equals(SortOperation.SET) ? current.get(i) + unzigzag(readVarint(in)) : 0;
+                lastI = i;
+
+                SortOperation expected = trace.getOperations().get(k++);
+                assertEquals(expected.getType(), type, algorithm + " - 操作 " + k);
+                assertEquals(expected.getI(), i, algorithm + " - 操作 " + k);
+                assertEquals(expected.getJ(), j, algorithm + " - 操作 " + k);
+                apply(current, new SortOperation(type, i, j, value));
+            }
+            assertEquals(trace.getOperations().size(), k, algorithm + " - 操作数");
+            assertEquals(replay(trace), current, algorithm + " - 再生結果");
+        }
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int result = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.get() & 0xFF;
+            result |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return result;
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * 1つのインスタンスを多数のスレッドから同時に使っても記録が混ざらないことのテスト
+     */
+    @Test
+    public void testConcurrentTracesAreIsolated() throws Exception {
+        SortService service = new SortService();
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads * 8; t++) {
+                final int seed = t;
+                futures.add(executor.submit(() -> {
+                    String algorithm = ALGORITHMS[seed % ALGORITHMS.length];
+                    SortOrder order = seed % 2 == 0 ? SortOrder.ASCENDING : SortOrder.DESCENDING;
+                    List<Integer> input = toList(TestDataGenerator.generateRandomArray(40 + seed % 20, -100, 100));
+                    List<Integer> expected = new ArrayList<>(input);
+                    expected.sort(order == SortOrder.ASCENDING ? null : Collections.reverseOrder());
+
+                    SortStepBuffer steps = service.executeSortWithSteps(input, algorithm, order);
+                    assertEquals(input, steps.get(0).getArray(), algorithm + " - 初期配列");
+                    assertEquals(expected, steps.get(steps.size() - 1).getArray(), algorithm + " - 最終配列");
+
+                    SortTrace trace = service.executeSortWithOperations(input, algorithm, order);
+                    assertEquals(expected, replay(trace), algorithm + " - 再生結果");
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * NDJSON で書き出したソート過程の1行目が初期配列で、以降の操作を再生するとソート結果になることのテスト
+     */
+    @Test
+    public void testStreamWriterOutputReplays() throws Exception {
+        List<Integer> input = toList(TestDataGenerator.generateRandomArray(600, -1000, 1000));
+        ObjectMapper mapper = new ObjectMapper();
+        for (SortOrder order : SortOrder.values()) {
+            java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+            SortStreamWriter writer = new SortStreamWriter(out);
+            writer.writeInitialArray(input);
+            new SortService().executeSort(input, "quickSort", order, writer);
+            writer.close();
+
+            String[] lines = out.toString(java.nio.charset.StandardCharsets.UTF_8).split("\n");
+            com.fasterxml.jackson.databind.JsonNode first = mapper.readTree(lines[0]);
+            List<Integer> replayed = new ArrayList<>();
+            first.get("array").forEach(value -> replayed.add(value.asInt()));
+            assertEquals(input, replayed, "1行目は初期配列");
+            assertEquals(0, first.get("comparingIndices").size());
+
+            int operations = 0;
+            for (int k = 1; k < lines.length; k++) {
+                if (lines[k].isBlank()) {
+                    continue;
+                }
+                com.fasterxml.jackson.databind.JsonNode line = mapper.readTree(lines[k]);
+                apply(replayed, new SortOperation(line.get("type").asText(), line.get("i").asInt(),
+                        line.get("j").asInt(), line.get("value").asInt()));
+                operations++;
+            }
+            assertTrue(operations > 0, "操作が書き出されていません");
+
+            List<Integer> expected = new ArrayList<>(input);
+            expected.sort(order == SortOrder.ASCENDING ? null : Collections.reverseOrder());
+            assertEquals(expected, replayed, "再生結果 - " + order);
+        }
+    }
+
+    private static List<Integer> replay(SortTrace trace) {
+        List<Integer> array = new ArrayList<>(trace.getInitialArray());
+        for (SortOperation operation : trace.getOperations()) {
+            apply(array, operation);
+        }
+        return array;
+    }
+
+    /**
+     * 操作ログを再生し、比較を含む各操作の後のステップを返す
+     */
+    private static SortStepBuffer replaySteps(SortTrace trace) {
+        List<Integer> array = new ArrayList<>(trace.getInitialArray());
+        SortStepBuffer steps = new SortStepBuffer(array.size());
+        steps.add(array, -1, -1);
+        for (SortOperation operation : trace.getOperations()) {
+            apply(array, operation);
+            steps.add(array, operation.getI(), operation.getJ());
+        }
+        return steps;
+    }
+
+    private static void apply(List<Integer> array, SortOperation operation) {
+        switch (operation.getType()) {
+            case SortOperation.SWAP:
+                int temp = array.get(operation.getI());
+                array.set(operation.getI(), array.get(operation.getJ()));
+                array.set(operation.getJ(), temp);
+                break;
+            case SortOperation.SET:
+                array.set(operation.getI(), operation.getValue());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static List<Integer> toList(int[] arr) {
+        List<Integer> list = new ArrayList<>();
+        for (int value : arr) {
+            list.add(value);
+        }
+        return list;
+    }
+}
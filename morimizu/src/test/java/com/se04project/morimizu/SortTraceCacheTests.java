@@ -0,0 +1,122 @@
+package com.se04project.morimizu;
+
+import com.se04project.morimizu.sort.SortOrder;
+import com.se04project.morimizu.sort.TestDataGenerator;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SortTraceCacheのテストクラス
+ */
+public class SortTraceCacheTests {
+
+    private final SortService service = new SortService();
+
+    /**
+     * 同じ入力は再計算せずにキャッシュから返されることのテスト
+     */
+    @Test
+    public void testSameRequestIsServedFromCache() {
+        SortTraceCache cache = new SortTraceCache();
+        List<Integer> array = List.of(5, 2, 8, 1, 9);
+        int[] generated = { 0 };
+
+        SortStepBuffer first = cache.get(array, "bubbleSort", SortOrder.ASCENDING, null, () -> {
+            generated[0]++;
+            return service.executeSortWithSteps(array, "bubbleSort", SortOrder.ASCENDING);
+        });
+        SortStepBuffer second = cache.get(List.of(5, 2, 8, 1, 9), "bubbleSort", SortOrder.ASCENDING, null, () -> {
+            generated[0]++;
+            return service.executeSortWithSteps(array, "bubbleSort", SortOrder.ASCENDING);
+        });
+
+        assertSame(first, second);
+        assertEquals(1, generated[0]);
+
+        // アルゴリズム・ソート順・maxFrames が異なる場合は別のエントリ
+        cache.get(array, "bubbleSort", SortOrder.DESCENDING, null, () -> service.executeSortWithSteps(array, "bubbleSort", SortOrder.DESCENDING));
+        cache.get(array, "bubbleSort", SortOrder.ASCENDING, 3, () -> service.executeSortWithSteps(array, "bubbleSort", SortOrder.ASCENDING, 3));
+
+        Map<String, Object> stats = cache.getStats();
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(3L, stats.get("misses"));
+        assertEquals(3, stats.get("entries"));
+    }
+
+    /**
+     * サイズの上限を超えた場合に最も古いエントリから破棄されることのテスト
+     */
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        List<Integer> a = List.of(3, 2, 1);
+        List<Integer> b = List.of(6, 5, 4);
+        List<Integer> c = List.of(9, 8, 7);
+        long entryBytes = entryBytes(a);
+        SortTraceCache cache = new SortTraceCache(entryBytes * 2);
+
+        cache.get(a, "bubbleSort", SortOrder.ASCENDING, null, () -> service.executeSortWithSteps(a, "bubbleSort", SortOrder.ASCENDING));
+        cache.get(b, "bubbleSort", SortOrder.ASCENDING, null, () -> service.executeSortWithSteps(b, "bubbleSort", SortOrder.ASCENDING));
+        // a を参照して b を最も古いエントリにする
+        cache.get(a, "bubbleSort", SortOrder.ASCENDING, null, () -> fail("キャッシュされているはずです"));
+        cache.get(c, "bubbleSort", SortOrder.ASCENDING, null, () -> service.executeSortWithSteps(c, "bubbleSort", SortOrder.ASCENDING));
+
+        Map<String, Object> stats = cache.getStats();
+        assertEquals(1L, stats.get("evictions"));
+        assertEquals(2, stats.get("entries"));
+        assertTrue((Long) stats.get("bytes") <= entryBytes * 2);
+
+        cache.get(a, "bubbleSort", SortOrder.ASCENDING, null, () -> fail("a は破棄されていないはずです"));
+        int[] regenerated = { 0 };
+        cache.get(b, "bubbleSort", SortOrder.ASCENDING, null, () -> {
+            regenerated[0]++;
+            return service.executeSortWithSteps(b, "bubbleSort", SortOrder.ASCENDING);
+        });
+        assertEquals(1, regenerated[0]);
+    }
+
+    /**
+     * キーに保持する入力配列もサイズに含まれることのテスト
+     */
+    @Test
+    public void testKeyArrayIsCounted() {
+        List<Integer> array = new ArrayList<>();
+        for (int value : TestDataGenerator.generateRandomArray(100000, 0, 1000)) {
+            array.add(value);
+        }
+        long traceBytes = trimmed(array, 2).estimatedBytes();
+        assertTrue(entryBytes(array, 2) >= traceBytes + 4L * array.size());
+
+        // ソート過程だけなら収まる上限でも、入力配列を含めると超えるため保持しない
+        SortTraceCache cache = new SortTraceCache(traceBytes + 4L * array.size() - 1);
+        cache.get(array, "radixSort", SortOrder.ASCENDING, 2, () -> trimmed(array, 2));
+        assertEquals(0, cache.getStats().get("entries"));
+        assertEquals(0L, cache.getStats().get("bytes"));
+    }
+
+    private long entryBytes(List<Integer> array) {
+        SortTraceCache cache = new SortTraceCache();
+        cache.get(array, "bubbleSort", SortOrder.ASCENDING, null, () -> trimmed(array));
+        return (Long) cache.getStats().get("bytes");
+    }
+
+    private long entryBytes(List<Integer> array, int maxFrames) {
+        SortTraceCache cache = new SortTraceCache();
+        cache.get(array, "radixSort", SortOrder.ASCENDING, maxFrames, () -> trimmed(array, maxFrames));
+        return (Long) cache.getStats().get("bytes");
+    }
+
+    private SortStepBuffer trimmed(List<Integer> array) {
+        SortStepBuffer steps = service.executeSortWithSteps(array, "bubbleSort", SortOrder.ASCENDING);
+        steps.trimToSize();
+        return steps;
+    }
+
+    private SortStepBuffer trimmed(List<Integer> array, int maxFrames) {
+        SortStepBuffer steps = service.executeSortWithSteps(array, "radixSort", SortOrder.ASCENDING, maxFrames);
+        steps.trimToSize();
+        return steps;
+    }
+}
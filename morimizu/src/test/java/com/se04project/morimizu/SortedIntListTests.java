@@ -0,0 +1,112 @@
+package com.se04project.morimizu;
+
+import com.se04project.morimizu.sort.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SortedIntList（要素数付き B+ 木）のテストクラス
+ */
+public class SortedIntListTests {
+
+    /**
+     * 挿入・削除を繰り返しても、ソート済みのリストと同じ内容・順位になることのテスト
+     */
+    @Test
+    public void testRandomInsertAndDelete() {
+        Random random = new Random(25);
+        SortedIntList list = new SortedIntList();
+        List<Integer> expected = new ArrayList<>();
+        for (int step = 0; step < 60000; step++) {
+            // 前半は挿入を多く、後半は削除を多くして、分割と併合の両方を起こす
+            boolean insert = random.nextInt(100) < (step < 30000 ? 70 : 30);
+            int value = random.nextInt(2000) - 1000;
+            if (insert) {
+                list.add(value);
+                int position = Collections.binarySearch(expected, value);
+                expected.add(position < 0 ? -position - 1 : position, value);
+            } else {
+                assertEquals(expected.remove(Integer.valueOf(value)), list.remove(value), "削除 - 値 " + value);
+            }
+            if (step % 5000 == 0) {
+                assertContents(expected, list);
+            }
+        }
+        assertContents(expected, list);
+        for (int value = -1001; value <= 1000; value += 7) {
+            int lower = lowerBound(expected, value);
+            assertEquals(lower, list.rank(value), "順位 - 値 " + value);
+            assertEquals(lowerBound(expected, value + 1) - lower, list.count(value), "個数 - 値 " + value);
+        }
+
+        while (list.size() > 0) {
+            int index = random.nextInt(list.size());
+            assertEquals((int) expected.remove(index), list.removeAt(index));
+        }
+        assertEquals(0, list.size());
+        assertEquals(0, list.rank(0));
+        list.add(3);
+        assertArrayEquals(new int[] {3}, list.toArray(0, 1));
+    }
+
+    /**
+     * 配列からの一括構築とまとめての挿入・削除のテスト
+     */
+    @Test
+    public void testBulkOperations() {
+        int[] initial = TestDataGenerator.generateRandomArray(100000, -1000000, 1000000);
+        SortedIntList list = new SortedIntList(initial);
+        int[] sorted = TestDataGenerator.copyArray(initial);
+        java.util.Arrays.sort(sorted);
+        assertArrayEquals(sorted, list.toArray(0, list.size()), "一括構築");
+        assertEquals(sorted[50000], list.get(50000));
+        assertArrayEquals(java.util.Arrays.copyOfRange(sorted, 999, 1100), list.toArray(999, 1100), "範囲の読み出し");
+
+        // 少ない挿入は1つずつ、多い挿入は全体をマージして作り直す
+        int[] few = {5, -5, 5, Integer.MIN_VALUE, Integer.MAX_VALUE};
+        int[] many = TestDataGenerator.generateRandomArray(150000, -1000000, 1000000);
+        list.addAll(few);
+        list.addAll(many);
+        int[] all = new int[sorted.length + few.length + many.length];
+        System.arraycopy(sorted, 0, all, 0, sorted.length);
+        System.arraycopy(few, 0, all, sorted.length, few.length);
+        System.arraycopy(many, 0, all, sorted.length + few.length, many.length);
+        java.util.Arrays.sort(all);
+        assertArrayEquals(all, list.toArray(0, list.size()), "まとめての挿入");
+
+        assertEquals(3, list.removeAll(new int[] {Integer.MIN_VALUE, Integer.MIN_VALUE, 5, 5}));
+        assertEquals(all.length - 3, list.size());
+        assertEquals(all[1], list.get(0), "削除後の最小値");
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(list.size()));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.toArray(2, 1));
+    }
+
+    private static void assertContents(List<Integer> expected, SortedIntList list) {
+        assertEquals(expected.size(), list.size(), "要素数");
+        int[] values = list.toArray(0, list.size());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals((int) expected.get(i), values[i], "位置 " + i);
+        }
+        for (int i = 0; i < expected.size(); i += 97) {
+            assertEquals((int) expected.get(i), list.get(i), "get - 位置 " + i);
+        }
+    }
+
+    private static int lowerBound(List<Integer> sorted, int value) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted.get(mid) < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
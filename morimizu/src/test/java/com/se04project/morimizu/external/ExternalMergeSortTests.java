@@ -0,0 +1,156 @@
+package com.se04project.morimizu.external;
+
+import com.se04project.morimizu.sort.TestDataGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 外部マージソートのテストクラス
+ */
+public class ExternalMergeSortTests {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * 1つのランに収まる入力のテスト
+     */
+    @Test
+    public void testSingleRun() throws IOException {
+        int[] input = TestDataGenerator.generateArrayWithNegativeNumbers(1000);
+        assertSorted(input, new ExternalMergeSort(1024 * 1024, tempDir));
+    }
+
+    /**
+     * 多数のランを何段かに分けてマージする入力のテスト
+     * メモリの上限が小さいため、1段では全ランをマージできない
+     */
+    @Test
+    public void testMultiPassMerge() throws IOException {
+        int[] input = TestDataGenerator.generateRandomArray(100000, -1000000000, 1000000000);
+        input[0] = Integer.MIN_VALUE;
+        input[1] = Integer.MAX_VALUE;
+        assertSorted(input, new ExternalMergeSort(16 * 1024, tempDir));
+    }
+
+    /**
+     * 重複の多い入力と空の入力のテスト
+     */
+    @Test
+    public void testDuplicatesAndEmptyInput() throws IOException {
+        ExternalMergeSort sorter = new ExternalMergeSort(16 * 1024, tempDir);
+        assertSorted(TestDataGenerator.generateArrayWithDuplicates(20000, 3), sorter);
+        assertSorted(new int[0], sorter);
+    }
+
+    /**
+     * サイズが4の倍数でない入力とメモリの上限が小さすぎる場合のテスト
+     */
+    @Test
+    public void testInvalidArguments() throws IOException {
+        Path input = tempDir.resolve("broken.bin");
+        Files.write(input, new byte[] {1, 2, 3});
+        ExternalMergeSort sorter = new ExternalMergeSort(16 * 1024, tempDir);
+        assertThrows(IllegalArgumentException.class, () -> sorter.sort(input, tempDir.resolve("out.bin")));
+        assertThrows(IllegalArgumentException.class, () -> new ExternalMergeSort(1024, tempDir));
+    }
+
+    /**
+     * 途中の段のマージで失敗した場合も一時ファイルが残らないことのテスト
+     */
+    @Test
+    public void testTempFilesDeletedOnMergeFailure() throws IOException {
+        Path inputFile = tempDir.resolve("input.bin");
+        writeInts(inputFile, TestDataGenerator.generateRandomArray(20000, -1000000, 1000000));
+        Path runDirectory = Files.createDirectory(tempDir.resolve("runs"));
+
+        // 1段目の2回目のマージで失敗させる（1回目の結果のランと、2回目の出力先のランが作成済みの状態）
+        ExternalMergeSort sorter = new ExternalMergeSort(16 * 1024, runDirectory) {
+            private int merges;
+
+            @Override
+            void merge(java.util.List<Path> runs, Path output, java.nio.ByteBuffer[] buffers) throws IOException {
+                if (++merges == 2) {
+                    throw new IOException("マージの失敗");
+                }
+                super.merge(runs, output, buffers);
+            }
+        };
+        assertThrows(IOException.class, () -> sorter.sort(inputFile, tempDir.resolve("output.bin")));
+        try (Stream<Path> files = Files.list(runDirectory)) {
+            assertEquals(0L, files.count(), "一時ファイルが削除されていません");
+        }
+    }
+
+    /**
+     * 何段かに分けてマージする場合も、すべてのマージで同じバッファを使い回し、合計がメモリの上限に収まることのテスト
+     */
+    @Test
+    public void testMergeBuffersAreReused() throws IOException {
+        long memoryBytes = 16 * 1024;
+        java.util.Set<java.nio.ByteBuffer[]> used = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+        int[] merges = { 0 };
+        ExternalMergeSort sorter = new ExternalMergeSort(memoryBytes, tempDir) {
+            @Override
+            void merge(java.util.List<Path> runs, Path output, java.nio.ByteBuffer[] buffers) throws IOException {
+                merges[0]++;
+                used.add(buffers);
+                long total = 0;
+                for (java.nio.ByteBuffer buffer : buffers) {
+                    total += buffer.capacity();
+                }
+                assertTrue(total <= memoryBytes, "バッファの合計がメモリの上限を超えています: " + total);
+                super.merge(runs, output, buffers);
+            }
+        };
+        assertSorted(TestDataGenerator.generateRandomArray(20000, -1000000, 1000000), sorter);
+        assertTrue(merges[0] > 1, "何段かに分けてマージする入力であること");
+        assertEquals(1, used.size());
+    }
+
+    private void assertSorted(int[] input, ExternalMergeSort sorter) throws IOException {
+        Path inputFile = tempDir.resolve("input.bin");
+        Path outputFile = tempDir.resolve("output.bin");
+        writeInts(inputFile, input);
+
+        sorter.sort(inputFile, outputFile);
+
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, readInts(outputFile), "外部マージソート - 要素数 " + input.length);
+        assertArrayEquals(input, readInts(inputFile), "入力ファイルが変更されています");
+
+        // 一時ファイルが残っていないこと
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(2L, files.count(), "一時ファイルが削除されていません");
+        }
+    }
+
+    private static void writeInts(Path path, int[] values) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            for (int value : values) {
+                out.writeInt(value);
+            }
+        }
+    }
+
+    private static int[] readInts(Path path) throws IOException {
+        int[] values = new int[(int) (Files.size(path) / Integer.BYTES)];
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = in.readInt();
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,63 @@
+package com.se04project.morimizu.sort;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * サンプルソートのバケット分割のテストクラス
+ */
+public class SampleSortTests {
+
+    /**
+     * 重複の多い入力でも、ソートが必要な範囲のバケットに要素が偏らないことのテスト
+     */
+    @Test
+    public void testDuplicateKeysAreSpread() {
+        int n = 400000;
+        Random random = new Random(18);
+        int[] constant = new int[n];
+        Arrays.fill(constant, 7);
+        int[] fewValues = new int[n];
+        int[] skewed = new int[n];
+        for (int i = 0; i < n; i++) {
+            fewValues[i] = random.nextInt(5) * 1000;
+            // 9割が同じ値で、残りはばらばらの値
+            skewed[i] = random.nextInt(10) == 0 ? random.nextInt() : 42;
+        }
+
+        int rangeBuckets = 32;
+        for (int[] input : new int[][] { constant, fewValues, skewed }) {
+            int[] splitters = SampleSort.chooseSplitters(input, rangeBuckets);
+            for (int k = 1; k < splitters.length; k++) {
+                assertTrue(splitters[k - 1] < splitters[k], "スプリッタが重複しています");
+            }
+
+            int[] sizes = new int[2 * splitters.length + 1];
+            for (int value : input) {
+                int bucket = SampleSort.bucketIndex(splitters, value);
+                if (bucket % 2 == 1) {
+                    assertEquals(splitters[bucket / 2], value, "等値のバケットに異なる値が入っています");
+                }
+                sizes[bucket]++;
+            }
+            // 等値のバケットはソートしないため、ソートが必要な要素は1つの範囲のバケットに集中しない
+            for (int bucket = 0; bucket < sizes.length; bucket += 2) {
+                assertTrue(sizes[bucket] <= n / 8, "範囲のバケットに要素が偏っています: " + sizes[bucket] + " / " + n);
+            }
+
+            int[] array = input.clone();
+            int[] expected = input.clone();
+            Arrays.sort(expected);
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                SampleSort.parallelSort(array, pool);
+            } finally {
+                pool.shutdown();
+            }
+            assertArrayEquals(expected, array);
+        }
+    }
+}